@@ -30,6 +30,8 @@ package org.codehaus.griffon.jsilhouette.geom;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.swing.*;
 
 /**
@@ -53,61 +55,67 @@ public class Demo {
       panel.setLayout(new BorderLayout(5,5));
 
       final CanvasPanel canvas = new CanvasPanel();
+      final StressPanel stress = new StressPanel();
+      final CardLayout cards = new CardLayout();
+      final JPanel center = new JPanel(cards);
+      center.add(canvas, "scene");
+      center.add(stress, "stress");
       JPanel controls = new JPanel();
-      controls.setLayout(new GridLayout(10,1));
+      controls.setLayout(new GridLayout(SCENES.size() + 3,1));
       panel.add(controls, BorderLayout.WEST);
-      panel.add(canvas, BorderLayout.CENTER);
-
-      controls.add(newButton("Arrow", new ActionListener(){
-         public void actionPerformed(ActionEvent event) {
-            drawArrows(canvas);
-         }
-      }));
-      controls.add(newButton("Balloon", new ActionListener(){
-         public void actionPerformed(ActionEvent event) {
-            drawBalloons(canvas);
-         }
-      }));
-      controls.add(newButton("Cross", new ActionListener(){
-         public void actionPerformed(ActionEvent event) {
-            drawCrosses(canvas);
-         }
-      }));
-      controls.add(newButton("Donut", new ActionListener(){
-         public void actionPerformed(ActionEvent event) {
-            drawDonuts(canvas);
-         }
-      }));
-      controls.add(newButton("MultiRoundRectangle", new ActionListener(){
-         public void actionPerformed(ActionEvent event) {
-            drawMultiRoundRectangles(canvas);
-         }
-      }));
-      controls.add(newButton("Rays", new ActionListener(){
-         public void actionPerformed(ActionEvent event) {
-            drawRays(canvas);
-         }
-      }));
-      controls.add(newButton("RegularPolygon", new ActionListener(){
-         public void actionPerformed(ActionEvent event) {
-            drawRegularPolygons(canvas);
+      panel.add(center, BorderLayout.CENTER);
+
+      // stress mode animates the last selected shape type
+      final JToggleButton stressMode = new JToggleButton("Stress");
+      final JComboBox<Integer> count = new JComboBox<Integer>(new Integer[] {500, 1000, 2000, 5000, 10000});
+      count.setSelectedItem(2000);
+      final String[] selected = {"Star"};
+      final Runnable update = new Runnable() {
+         public void run() {
+            if(stressMode.isSelected()) {
+               stress.start(selected[0], (Integer) count.getSelectedItem());
+               cards.show(center, "stress");
+            } else {
+               stress.stop();
+               cards.show(center, "scene");
+            }
          }
-      }));
-      controls.add(newButton("RoundPin", new ActionListener(){
+      };
+
+      for(final Map.Entry<String, Scene> scene : SCENES.entrySet()) {
+         controls.add(newButton(scene.getKey(), new ActionListener(){
+            public void actionPerformed(ActionEvent event) {
+               selected[0] = scene.getKey();
+               canvas.setScene(scene.getValue());
+               if(stressMode.isSelected()) update.run();
+            }
+         }));
+      }
+      ActionListener restart = new ActionListener(){
          public void actionPerformed(ActionEvent event) {
-            drawRoundPins(canvas);
+            update.run();
          }
-      }));
-      controls.add(newButton("Star", new ActionListener(){
+      };
+      stressMode.addActionListener(restart);
+      count.addActionListener(restart);
+      // batching wraps each frame's setter calls in beginUpdate()/endUpdate()
+      final JCheckBox batched = new JCheckBox("Batch updates");
+      batched.addActionListener(new ActionListener(){
          public void actionPerformed(ActionEvent event) {
-            drawStars(canvas);
+            stress.setBatched(batched.isSelected());
          }
-      }));
-      controls.add(newButton("Triangle", new ActionListener(){
+      });
+      // asynchronous shapes calculate their geometry off the event dispatch thread
+      final JCheckBox async = new JCheckBox("Background calculation");
+      async.addActionListener(new ActionListener(){
          public void actionPerformed(ActionEvent event) {
-            drawTriangles(canvas);
+            stress.setAsync(async.isSelected());
          }
-      }));
+      });
+      controls.add(stressMode);
+      controls.add(count);
+      controls.add(batched);
+      controls.add(async);
 
       return panel;
    }
@@ -118,233 +126,210 @@ public class Demo {
       return button;
    }
 
-   private static void drawArrows(CanvasPanel canvas) {
-      canvas.setPaintOperation(new PaintOperation() {
-         public void paint(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g; 
-
-            drawShape(g2, new Arrow(20,20,100,60), Color.RED);
-            drawShape(g2, new Arrow(140,20,100,60,0.5f,0.2f), Color.GREEN);
-            drawShape(g2, new Arrow(20,100,100,60,0.75f,0.5f), Color.BLUE);
-            drawShape(g2, new Arrow(140,100,100,60,0.25f,0.5f), Color.ORANGE);
-            drawShape(g2, new Arrow(20,200,100,60,0.5f,0.5f,45), Color.MAGENTA);
-            drawShape(g2, new Arrow(140,200,100,60,0.5f,0.5f,180), Color.CYAN);
-         }
-      });
-   }
-
-   private static void drawBalloons(CanvasPanel canvas) {
-      canvas.setPaintOperation(new PaintOperation() {
-         public void paint(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g; 
-
-            drawShape(g2, new Balloon(20,20,50,50,0,20,10,Balloon.TAB_AT_BOTTOM,0.5f), Color.RED);
-            drawShape(g2, new Balloon(90,20,50,50,0,20,10,Balloon.TAB_AT_LEFT,0.5f), Color.RED);
-            drawShape(g2, new Balloon(160,20,50,50,0,20,10,Balloon.TAB_AT_TOP,0.5f), Color.RED);
-            drawShape(g2, new Balloon(230,20,50,50,0,20,10,Balloon.TAB_AT_RIGHT,0.5f), Color.RED);
-
-            drawShape(g2, new Balloon(20,90,50,50,10,20,10,Balloon.TAB_AT_BOTTOM,0.5f,Balloon.ANGLE_AT_END), Color.GREEN);
-            drawShape(g2, new Balloon(90,90,50,50,10,20,10,Balloon.TAB_AT_LEFT,0.5f,Balloon.ANGLE_AT_END), Color.GREEN);
-            drawShape(g2, new Balloon(160,90,50,50,10,20,10,Balloon.TAB_AT_TOP,0.5f,Balloon.ANGLE_AT_END), Color.GREEN);
-            drawShape(g2, new Balloon(230,90,50,50,10,20,10,Balloon.TAB_AT_RIGHT,0.5f,Balloon.ANGLE_AT_END), Color.GREEN);
-
-            drawShape(g2, new Balloon(20,160,50,50,10,20,10,Balloon.TAB_AT_BOTTOM,0.5f,Balloon.ANGLE_AT_START), Color.BLUE);
-            drawShape(g2, new Balloon(90,160,50,50,10,20,10,Balloon.TAB_AT_LEFT,0.5f,Balloon.ANGLE_AT_START), Color.BLUE);
-            drawShape(g2, new Balloon(160,160,50,50,10,20,10,Balloon.TAB_AT_TOP,0.5f,Balloon.ANGLE_AT_START), Color.BLUE);
-            drawShape(g2, new Balloon(230,160,50,50,10,20,10,Balloon.TAB_AT_RIGHT,0.5f,Balloon.ANGLE_AT_START), Color.BLUE);
-
-            drawShape(g2, new Balloon(20,230,50,50,10,20,10,Balloon.TAB_AT_BOTTOM,0), Color.ORANGE);
-            drawShape(g2, new Balloon(90,230,50,50,10,20,10,Balloon.TAB_AT_LEFT,0), Color.ORANGE);
-            drawShape(g2, new Balloon(160,230,50,50,10,20,10,Balloon.TAB_AT_TOP,0), Color.ORANGE);
-            drawShape(g2, new Balloon(230,230,50,50,10,20,10,Balloon.TAB_AT_RIGHT,0), Color.ORANGE);
-
-            drawShape(g2, new Balloon(20,300,50,50,10,20,10,Balloon.TAB_AT_BOTTOM,1), Color.MAGENTA);
-            drawShape(g2, new Balloon(90,300,50,50,10,20,10,Balloon.TAB_AT_LEFT,1), Color.MAGENTA);
-            drawShape(g2, new Balloon(160,300,50,50,10,20,10,Balloon.TAB_AT_TOP,1), Color.MAGENTA);
-            drawShape(g2, new Balloon(230,300,50,50,10,20,10,Balloon.TAB_AT_RIGHT,1), Color.MAGENTA);
-         }
-      });
-   }
-
-   private static void drawCrosses(CanvasPanel canvas) {
-      canvas.setPaintOperation(new PaintOperation() {
-         public void paint(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g; 
-
-            drawShape(g2, new Cross(60,60,40,30), Color.RED);
-            drawShape(g2, new Cross(160,60,40,10), Color.GREEN);
-            drawShape(g2, new Cross(60,160,40,30,0,0.25f), Color.BLUE);
-            drawShape(g2, new Cross(160,160,40,30,0,0.75f), Color.ORANGE);
-            drawShape(g2, new Cross(60,260,40,30,45), Color.MAGENTA);
-            drawShape(g2, new Cross(160,260,40,30,45,0.5f), Color.CYAN);
-         }
-      });
-   }
-
-   private static void drawDonuts(CanvasPanel canvas) {
-      canvas.setPaintOperation(new PaintOperation() {
-         public void paint(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g; 
-
-            drawShape(g2, new Donut(40,40,30,5,2), Color.RED);
-            drawShape(g2, new Donut(120,40,30,5,3), Color.RED);
-            drawShape(g2, new Donut(200,40,30,5,4), Color.RED);
-            drawShape(g2, new Donut(280,40,30,5,5), Color.RED);
-
-            drawShape(g2, new Donut(40,120,30,10,2), Color.GREEN);
-            drawShape(g2, new Donut(120,120,30,10,3), Color.GREEN);
-            drawShape(g2, new Donut(200,120,30,10,4), Color.GREEN);
-            drawShape(g2, new Donut(280,120,30,10,5), Color.GREEN);
-
-            drawShape(g2, new Donut(40,200,30,20,2), Color.BLUE);
-            drawShape(g2, new Donut(120,200,30,20,3), Color.BLUE);
-            drawShape(g2, new Donut(200,200,30,20,4), Color.BLUE);
-            drawShape(g2, new Donut(280,200,30,20,5), Color.BLUE);
-
-            drawShape(g2, new Donut(40,280,30,10,2,45), Color.ORANGE);
-            drawShape(g2, new Donut(120,280,30,10,3,45), Color.ORANGE);
-            drawShape(g2, new Donut(200,280,30,10,4,45), Color.ORANGE);
-            drawShape(g2, new Donut(280,280,30,10,5,45), Color.ORANGE);
-         }
-      });
-   }
-
-   private static void drawMultiRoundRectangles(CanvasPanel canvas) {
-      canvas.setPaintOperation(new PaintOperation() {
-         public void paint(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g; 
-
-            drawShape(g2, new MultiRoundRectangle(20,20,120,60,30,30,0,0), Color.RED);
-            drawShape(g2, new MultiRoundRectangle(160,20,120,60,0,0,30,30), Color.GREEN);
-            drawShape(g2, new MultiRoundRectangle(20,100,120,60,30,0,30,0), Color.BLUE);
-            drawShape(g2, new MultiRoundRectangle(160,100,120,60,0,30,0,30), Color.ORANGE);
-         }
-      });
-   }
-
-   private static void drawRays(CanvasPanel canvas) {
-      canvas.setPaintOperation(new PaintOperation() {
-         public void paint(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g; 
-
-            drawShape(g2, new Rays(40,40,30,2), Color.RED);
-            drawShape(g2, new Rays(120,40,30,3), Color.RED);
-            drawShape(g2, new Rays(200,40,30,4), Color.RED);
-            drawShape(g2, new Rays(280,40,30,5), Color.RED);
-
-            drawShape(g2, new Rays(40,120,30,2,0.25f), Color.GREEN);
-            drawShape(g2, new Rays(120,120,30,3,0.25f), Color.GREEN);
-            drawShape(g2, new Rays(200,120,30,4,0.25f), Color.GREEN);
-            drawShape(g2, new Rays(280,120,30,5,0.25f), Color.GREEN);
-
-            drawShape(g2, new Rays(40,200,30,2,0.75f), Color.BLUE);
-            drawShape(g2, new Rays(120,200,30,3,0.75f), Color.BLUE);
-            drawShape(g2, new Rays(200,200,30,4,0.75f), Color.BLUE);
-            drawShape(g2, new Rays(280,200,30,5,0.75f), Color.BLUE);
-
-            drawShape(g2, new Rays(40,280,30,2,0,0.5f,true), Color.ORANGE);
-            drawShape(g2, new Rays(120,280,30,3,0,0.5f,true), Color.ORANGE);
-            drawShape(g2, new Rays(200,280,30,4,0,0.5f,true), Color.ORANGE);
-            drawShape(g2, new Rays(280,280,30,5,0,0.5f,true), Color.ORANGE);
-         }
-      });
-   }
-
-   private static void drawRegularPolygons(CanvasPanel canvas) {
-      canvas.setPaintOperation(new PaintOperation() {
-         public void paint(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g; 
-
-            drawShape(g2, new RegularPolygon(40,40,30,3), Color.RED);
-            drawShape(g2, new RegularPolygon(120,40,30,4), Color.RED);
-            drawShape(g2, new RegularPolygon(200,40,30,5), Color.RED);
-            drawShape(g2, new RegularPolygon(280,40,30,6), Color.RED);
-
-            drawShape(g2, new RegularPolygon(40,120,30,3,45), Color.GREEN);
-            drawShape(g2, new RegularPolygon(120,120,30,4,45), Color.GREEN);
-            drawShape(g2, new RegularPolygon(200,120,30,5,45), Color.GREEN);
-            drawShape(g2, new RegularPolygon(280,120,30,6,45), Color.GREEN);
-
-            drawShape(g2, new RegularPolygon(40,200,30,3,115), Color.BLUE);
-            drawShape(g2, new RegularPolygon(120,200,30,4,115), Color.BLUE);
-            drawShape(g2, new RegularPolygon(200,200,30,5,115), Color.BLUE);
-            drawShape(g2, new RegularPolygon(280,200,30,6,115), Color.BLUE);
-         }
-      });
-   }
-
-   private static void drawRoundPins(CanvasPanel canvas) {
-      canvas.setPaintOperation(new PaintOperation() {
-         public void paint(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g; 
-
-            drawShape(g2, new RoundPin(50,50,20,40,0), Color.RED);
-            drawShape(g2, new RoundPin(120,50,20,30,0), Color.RED);
-            drawShape(g2, new RoundPin(190,50,20,20,0), Color.RED);
-            drawShape(g2, new RoundPin(260,50,20,10,0), Color.RED);
-
-            drawShape(g2, new RoundPin(50,120,20,40,45), Color.GREEN);
-            drawShape(g2, new RoundPin(120,120,20,30,45), Color.GREEN);
-            drawShape(g2, new RoundPin(190,120,20,20,45), Color.GREEN);
-            drawShape(g2, new RoundPin(260,120,20,10,45), Color.GREEN);
-
-            drawShape(g2, new RoundPin(50,190,20,40,90), Color.BLUE);
-            drawShape(g2, new RoundPin(120,190,20,30,90), Color.BLUE);
-            drawShape(g2, new RoundPin(190,190,20,20,90), Color.BLUE);
-            drawShape(g2, new RoundPin(260,190,20,10,90), Color.BLUE);
-         }
-      });
-   }
-
-   private static void drawStars(CanvasPanel canvas) {
-      canvas.setPaintOperation(new PaintOperation() {
-         public void paint(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g; 
-
-            drawShape(g2, new Star(40,40,30,5,2), Color.RED);
-            drawShape(g2, new Star(120,40,30,5,3), Color.RED);
-            drawShape(g2, new Star(200,40,30,5,4), Color.RED);
-            drawShape(g2, new Star(280,40,30,5,5), Color.RED);
-
-            drawShape(g2, new Star(40,120,30,10,2), Color.GREEN);
-            drawShape(g2, new Star(120,120,30,10,3), Color.GREEN);
-            drawShape(g2, new Star(200,120,30,10,4), Color.GREEN);
-            drawShape(g2, new Star(280,120,30,10,5), Color.GREEN);
-
-            drawShape(g2, new Star(40,200,30,20,2), Color.BLUE);
-            drawShape(g2, new Star(120,200,30,20,3), Color.BLUE);
-            drawShape(g2, new Star(200,200,30,20,4), Color.BLUE);
-            drawShape(g2, new Star(280,200,30,20,5), Color.BLUE);
-
-            drawShape(g2, new Star(40,280,30,10,2,45), Color.ORANGE);
-            drawShape(g2, new Star(120,280,30,10,3,45), Color.ORANGE);
-            drawShape(g2, new Star(200,280,30,10,4,45), Color.ORANGE);
-            drawShape(g2, new Star(280,280,30,10,5,45), Color.ORANGE);
-         }
-      });
-   }
-
-   private static void drawTriangles(CanvasPanel canvas) {
-      canvas.setPaintOperation(new PaintOperation() {
-         public void paint(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g; 
+   static final Scene ARROWS = new Scene() {
+      public void paint(ShapePainter painter) {
+         painter.paint(new Arrow(20,20,100,60), Color.RED);
+         painter.paint(new Arrow(140,20,100,60,0.5f,0.2f), Color.GREEN);
+         painter.paint(new Arrow(20,100,100,60,0.75f,0.5f), Color.BLUE);
+         painter.paint(new Arrow(140,100,100,60,0.25f,0.5f), Color.ORANGE);
+         painter.paint(new Arrow(20,200,100,60,0.5f,0.5f,45), Color.MAGENTA);
+         painter.paint(new Arrow(140,200,100,60,0.5f,0.5f,180), Color.CYAN);
+      }
+   };
+
+   static final Scene BALLOONS = new Scene() {
+      public void paint(ShapePainter painter) {
+         painter.paint(new Balloon(20,20,50,50,0,20,10,Balloon.TAB_AT_BOTTOM,0.5f), Color.RED);
+         painter.paint(new Balloon(90,20,50,50,0,20,10,Balloon.TAB_AT_LEFT,0.5f), Color.RED);
+         painter.paint(new Balloon(160,20,50,50,0,20,10,Balloon.TAB_AT_TOP,0.5f), Color.RED);
+         painter.paint(new Balloon(230,20,50,50,0,20,10,Balloon.TAB_AT_RIGHT,0.5f), Color.RED);
+
+         painter.paint(new Balloon(20,90,50,50,10,20,10,Balloon.TAB_AT_BOTTOM,0.5f,Balloon.ANGLE_AT_END), Color.GREEN);
+         painter.paint(new Balloon(90,90,50,50,10,20,10,Balloon.TAB_AT_LEFT,0.5f,Balloon.ANGLE_AT_END), Color.GREEN);
+         painter.paint(new Balloon(160,90,50,50,10,20,10,Balloon.TAB_AT_TOP,0.5f,Balloon.ANGLE_AT_END), Color.GREEN);
+         painter.paint(new Balloon(230,90,50,50,10,20,10,Balloon.TAB_AT_RIGHT,0.5f,Balloon.ANGLE_AT_END), Color.GREEN);
+
+         painter.paint(new Balloon(20,160,50,50,10,20,10,Balloon.TAB_AT_BOTTOM,0.5f,Balloon.ANGLE_AT_START), Color.BLUE);
+         painter.paint(new Balloon(90,160,50,50,10,20,10,Balloon.TAB_AT_LEFT,0.5f,Balloon.ANGLE_AT_START), Color.BLUE);
+         painter.paint(new Balloon(160,160,50,50,10,20,10,Balloon.TAB_AT_TOP,0.5f,Balloon.ANGLE_AT_START), Color.BLUE);
+         painter.paint(new Balloon(230,160,50,50,10,20,10,Balloon.TAB_AT_RIGHT,0.5f,Balloon.ANGLE_AT_START), Color.BLUE);
+
+         painter.paint(new Balloon(20,230,50,50,10,20,10,Balloon.TAB_AT_BOTTOM,0), Color.ORANGE);
+         painter.paint(new Balloon(90,230,50,50,10,20,10,Balloon.TAB_AT_LEFT,0), Color.ORANGE);
+         painter.paint(new Balloon(160,230,50,50,10,20,10,Balloon.TAB_AT_TOP,0), Color.ORANGE);
+         painter.paint(new Balloon(230,230,50,50,10,20,10,Balloon.TAB_AT_RIGHT,0), Color.ORANGE);
+
+         painter.paint(new Balloon(20,300,50,50,10,20,10,Balloon.TAB_AT_BOTTOM,1), Color.MAGENTA);
+         painter.paint(new Balloon(90,300,50,50,10,20,10,Balloon.TAB_AT_LEFT,1), Color.MAGENTA);
+         painter.paint(new Balloon(160,300,50,50,10,20,10,Balloon.TAB_AT_TOP,1), Color.MAGENTA);
+         painter.paint(new Balloon(230,300,50,50,10,20,10,Balloon.TAB_AT_RIGHT,1), Color.MAGENTA);
+      }
+   };
+
+   static final Scene CROSSES = new Scene() {
+      public void paint(ShapePainter painter) {
+         painter.paint(new Cross(60,60,40,30), Color.RED);
+         painter.paint(new Cross(160,60,40,10), Color.GREEN);
+         painter.paint(new Cross(60,160,40,30,0,0.25f), Color.BLUE);
+         painter.paint(new Cross(160,160,40,30,0,0.75f), Color.ORANGE);
+         painter.paint(new Cross(60,260,40,30,45), Color.MAGENTA);
+         painter.paint(new Cross(160,260,40,30,45,0.5f), Color.CYAN);
+      }
+   };
+
+   static final Scene DONUTS = new Scene() {
+      public void paint(ShapePainter painter) {
+         painter.paint(new Donut(40,40,30,5,2), Color.RED);
+         painter.paint(new Donut(120,40,30,5,3), Color.RED);
+         painter.paint(new Donut(200,40,30,5,4), Color.RED);
+         painter.paint(new Donut(280,40,30,5,5), Color.RED);
+
+         painter.paint(new Donut(40,120,30,10,2), Color.GREEN);
+         painter.paint(new Donut(120,120,30,10,3), Color.GREEN);
+         painter.paint(new Donut(200,120,30,10,4), Color.GREEN);
+         painter.paint(new Donut(280,120,30,10,5), Color.GREEN);
+
+         painter.paint(new Donut(40,200,30,20,2), Color.BLUE);
+         painter.paint(new Donut(120,200,30,20,3), Color.BLUE);
+         painter.paint(new Donut(200,200,30,20,4), Color.BLUE);
+         painter.paint(new Donut(280,200,30,20,5), Color.BLUE);
+
+         painter.paint(new Donut(40,280,30,10,2,45), Color.ORANGE);
+         painter.paint(new Donut(120,280,30,10,3,45), Color.ORANGE);
+         painter.paint(new Donut(200,280,30,10,4,45), Color.ORANGE);
+         painter.paint(new Donut(280,280,30,10,5,45), Color.ORANGE);
+      }
+   };
+
+   static final Scene MULTI_ROUND_RECTANGLES = new Scene() {
+      public void paint(ShapePainter painter) {
+         painter.paint(new MultiRoundRectangle(20,20,120,60,30,30,0,0), Color.RED);
+         painter.paint(new MultiRoundRectangle(160,20,120,60,0,0,30,30), Color.GREEN);
+         painter.paint(new MultiRoundRectangle(20,100,120,60,30,0,30,0), Color.BLUE);
+         painter.paint(new MultiRoundRectangle(160,100,120,60,0,30,0,30), Color.ORANGE);
+      }
+   };
+
+   static final Scene RAYS = new Scene() {
+      public void paint(ShapePainter painter) {
+         painter.paint(new Rays(40,40,30,2), Color.RED);
+         painter.paint(new Rays(120,40,30,3), Color.RED);
+         painter.paint(new Rays(200,40,30,4), Color.RED);
+         painter.paint(new Rays(280,40,30,5), Color.RED);
+
+         painter.paint(new Rays(40,120,30,2,0.25f), Color.GREEN);
+         painter.paint(new Rays(120,120,30,3,0.25f), Color.GREEN);
+         painter.paint(new Rays(200,120,30,4,0.25f), Color.GREEN);
+         painter.paint(new Rays(280,120,30,5,0.25f), Color.GREEN);
+
+         painter.paint(new Rays(40,200,30,2,0.75f), Color.BLUE);
+         painter.paint(new Rays(120,200,30,3,0.75f), Color.BLUE);
+         painter.paint(new Rays(200,200,30,4,0.75f), Color.BLUE);
+         painter.paint(new Rays(280,200,30,5,0.75f), Color.BLUE);
+
+         painter.paint(new Rays(40,280,30,2,0,0.5f,true), Color.ORANGE);
+         painter.paint(new Rays(120,280,30,3,0,0.5f,true), Color.ORANGE);
+         painter.paint(new Rays(200,280,30,4,0,0.5f,true), Color.ORANGE);
+         painter.paint(new Rays(280,280,30,5,0,0.5f,true), Color.ORANGE);
+      }
+   };
+
+   static final Scene REGULAR_POLYGONS = new Scene() {
+      public void paint(ShapePainter painter) {
+         painter.paint(new RegularPolygon(40,40,30,3), Color.RED);
+         painter.paint(new RegularPolygon(120,40,30,4), Color.RED);
+         painter.paint(new RegularPolygon(200,40,30,5), Color.RED);
+         painter.paint(new RegularPolygon(280,40,30,6), Color.RED);
+
+         painter.paint(new RegularPolygon(40,120,30,3,45), Color.GREEN);
+         painter.paint(new RegularPolygon(120,120,30,4,45), Color.GREEN);
+         painter.paint(new RegularPolygon(200,120,30,5,45), Color.GREEN);
+         painter.paint(new RegularPolygon(280,120,30,6,45), Color.GREEN);
+
+         painter.paint(new RegularPolygon(40,200,30,3,115), Color.BLUE);
+         painter.paint(new RegularPolygon(120,200,30,4,115), Color.BLUE);
+         painter.paint(new RegularPolygon(200,200,30,5,115), Color.BLUE);
+         painter.paint(new RegularPolygon(280,200,30,6,115), Color.BLUE);
+      }
+   };
+
+   static final Scene ROUND_PINS = new Scene() {
+      public void paint(ShapePainter painter) {
+         painter.paint(new RoundPin(50,50,20,40,0), Color.RED);
+         painter.paint(new RoundPin(120,50,20,30,0), Color.RED);
+         painter.paint(new RoundPin(190,50,20,20,0), Color.RED);
+         painter.paint(new RoundPin(260,50,20,10,0), Color.RED);
+
+         painter.paint(new RoundPin(50,120,20,40,45), Color.GREEN);
+         painter.paint(new RoundPin(120,120,20,30,45), Color.GREEN);
+         painter.paint(new RoundPin(190,120,20,20,45), Color.GREEN);
+         painter.paint(new RoundPin(260,120,20,10,45), Color.GREEN);
+
+         painter.paint(new RoundPin(50,190,20,40,90), Color.BLUE);
+         painter.paint(new RoundPin(120,190,20,30,90), Color.BLUE);
+         painter.paint(new RoundPin(190,190,20,20,90), Color.BLUE);
+         painter.paint(new RoundPin(260,190,20,10,90), Color.BLUE);
+      }
+   };
+
+   static final Scene STARS = new Scene() {
+      public void paint(ShapePainter painter) {
+         painter.paint(new Star(40,40,30,5,2), Color.RED);
+         painter.paint(new Star(120,40,30,5,3), Color.RED);
+         painter.paint(new Star(200,40,30,5,4), Color.RED);
+         painter.paint(new Star(280,40,30,5,5), Color.RED);
+
+         painter.paint(new Star(40,120,30,10,2), Color.GREEN);
+         painter.paint(new Star(120,120,30,10,3), Color.GREEN);
+         painter.paint(new Star(200,120,30,10,4), Color.GREEN);
+         painter.paint(new Star(280,120,30,10,5), Color.GREEN);
+
+         painter.paint(new Star(40,200,30,20,2), Color.BLUE);
+         painter.paint(new Star(120,200,30,20,3), Color.BLUE);
+         painter.paint(new Star(200,200,30,20,4), Color.BLUE);
+         painter.paint(new Star(280,200,30,20,5), Color.BLUE);
+
+         painter.paint(new Star(40,280,30,10,2,45), Color.ORANGE);
+         painter.paint(new Star(120,280,30,10,3,45), Color.ORANGE);
+         painter.paint(new Star(200,280,30,10,4,45), Color.ORANGE);
+         painter.paint(new Star(280,280,30,10,5,45), Color.ORANGE);
+      }
+   };
 
-            drawShape(g2, new Triangle(20,90,80, 0), Color.RED);
-            drawShape(g2, new Triangle(140,90,80,45), Color.RED);
-            drawShape(g2, new Triangle(300,90,80,90), Color.RED);
+   static final Scene TRIANGLES = new Scene() {
+      public void paint(ShapePainter painter) {
+         painter.paint(new Triangle(20,90,80, 0), Color.RED);
+         painter.paint(new Triangle(140,90,80,45), Color.RED);
+         painter.paint(new Triangle(300,90,80,90), Color.RED);
 
-            drawShape(g2, new Triangle(20,190,80,0,30f), Color.BLUE);
-            drawShape(g2, new Triangle(140,190,80,45,30f), Color.BLUE);
-            drawShape(g2, new Triangle(300,190,80,90,30f), Color.BLUE);
+         painter.paint(new Triangle(20,190,80,0,30f), Color.BLUE);
+         painter.paint(new Triangle(140,190,80,45,30f), Color.BLUE);
+         painter.paint(new Triangle(300,190,80,90,30f), Color.BLUE);
 
-            drawShape(g2, new Triangle(20,300,80,0,Triangle.ANGLE_AT_END,30), Color.ORANGE);
-            drawShape(g2, new Triangle(140,300,80,45,Triangle.ANGLE_AT_END,30), Color.ORANGE);
-            drawShape(g2, new Triangle(300,300,80,90,Triangle.ANGLE_AT_END,30), Color.ORANGE);
-         }
-      });
+         painter.paint(new Triangle(20,300,80,0,Triangle.ANGLE_AT_END,30), Color.ORANGE);
+         painter.paint(new Triangle(140,300,80,45,Triangle.ANGLE_AT_END,30), Color.ORANGE);
+         painter.paint(new Triangle(300,300,80,90,Triangle.ANGLE_AT_END,30), Color.ORANGE);
+      }
+   };
+
+   /**
+    * Demo scenes in button order, also used by the rendering benchmarks.
+    */
+   static final Map<String, Scene> SCENES = new LinkedHashMap<String, Scene>();
+   static {
+      SCENES.put("Arrow", ARROWS);
+      SCENES.put("Balloon", BALLOONS);
+      SCENES.put("Cross", CROSSES);
+      SCENES.put("Donut", DONUTS);
+      SCENES.put("MultiRoundRectangle", MULTI_ROUND_RECTANGLES);
+      SCENES.put("Rays", RAYS);
+      SCENES.put("RegularPolygon", REGULAR_POLYGONS);
+      SCENES.put("RoundPin", ROUND_PINS);
+      SCENES.put("Star", STARS);
+      SCENES.put("Triangle", TRIANGLES);
    }
 
-   private static void drawShape(Graphics2D g, Shape shape, Color color) {
+   static void drawShape(Graphics2D g, Shape shape, Color color) {
       g.setColor(color);
       g.fill(shape);
       g.setColor(Color.BLACK);
@@ -352,30 +337,44 @@ public class Demo {
    }
 
    private static class CanvasPanel extends JPanel {
-      private PaintOperation paintOperation;
+      private Scene scene;
 
-      public void setPaintOperation(PaintOperation paintOperation) {
-         this.paintOperation = paintOperation;
+      public void setScene(Scene scene) {
+         this.scene = scene;
          if(isVisible()) {
             repaint();
          }
       }
 
       protected void paintComponent(Graphics g) {
-         if(paintOperation != null) {
+         if(scene != null) {
             Dimension size = getSize();
             g.clearRect(0, 0, size.width, size.height);
-            Graphics2D g2 = (Graphics2D) g; 
+            final Graphics2D g2 = (Graphics2D) g; 
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
                                  RenderingHints.VALUE_ANTIALIAS_ON);
-            paintOperation.paint(g);
+            scene.paint(new ShapePainter() {
+               public void paint(Shape shape, Color color) {
+                  drawShape(g2, shape, color);
+               }
+            });
          }else{
             super.paintComponent(g);
          }
       }
    }
 
-   private interface PaintOperation {
-      void paint(Graphics g);
+   /**
+    * Receives every shape of a scene together with its fill color.
+    */
+   interface ShapePainter {
+      void paint(Shape shape, Color color);
+   }
+
+   /**
+    * Creates the shapes of a demo scene, shapes are created anew on every paint.
+    */
+   interface Scene {
+      void paint(ShapePainter painter);
    }
 }
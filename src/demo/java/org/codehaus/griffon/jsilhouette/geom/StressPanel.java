@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.*;
+
+/**
+ * Animates thousands of shapes of a single type, mutating them through their setters
+ * on every frame, and overlays a HUD with frame statistics.
+ *
+ * @author Andres Almiray
+ */
+class StressPanel extends JPanel implements ActionListener {
+   private static final long serialVersionUID = 1L;
+
+   private static final int FRAMES = 120;
+   private static final Color HUD = new Color(0, 0, 0, 180);
+   private static final Color[] COLORS = {Color.RED, Color.GREEN, Color.BLUE, Color.ORANGE, Color.MAGENTA, Color.CYAN};
+
+   private final Timer timer = new Timer(1, this);
+   private final AtomicInteger recomputes = new AtomicInteger();
+   private final ShapeMonitor monitor = new ShapeMonitorAdapter() {
+      public void calculationFinished(Object token, AbstractShape shape, Shape geometry, String trigger, int areaOperations) {
+         recomputes.incrementAndGet();
+      }
+   };
+
+   private String type;
+   private Animator animator;
+   private boolean batched;
+   private boolean async;
+   private Shape[] shapes = new Shape[0];
+   private float[] origins;
+   private long start;
+
+   private final long[] frameTimes = new long[FRAMES];
+   private int frames;
+   private long lastFrame;
+   private int frameRecomputes;
+   private long hudTime;
+   private long hudAllocated;
+   private double allocationRate = -1;
+   private String[] hud = new String[0];
+
+   StressPanel() {
+      timer.setCoalesce(true);
+   }
+
+   public void start(String type, int count) {
+      stop();
+      this.type = type;
+      this.animator = ANIMATORS.get(type);
+      Random random = new Random(type.hashCode());
+      shapes = new Shape[count];
+      origins = new float[count * 2];
+      for(int i = 0; i < count; i++) {
+         origins[i * 2] = 20 + random.nextFloat() * Math.max(getWidth() - 40, 300);
+         origins[i * 2 + 1] = 20 + random.nextFloat() * Math.max(getHeight() - 40, 300);
+         shapes[i] = animator.create(origins[i * 2], origins[i * 2 + 1]);
+         ((AbstractShape) shapes[i]).setAsync(async);
+      }
+      frames = 0;
+      lastFrame = 0;
+      hudTime = 0;
+      allocationRate = -1;
+      start = System.nanoTime();
+      ShapeUtils.addShapeMonitor(monitor);
+      timer.start();
+   }
+
+   public void setBatched(boolean batched) {
+      this.batched = batched;
+   }
+
+   public void setAsync(boolean async) {
+      this.async = async;
+      for(Shape shape : shapes) ((AbstractShape) shape).setAsync(async);
+   }
+
+   public void stop() {
+      timer.stop();
+      ShapeUtils.removeShapeMonitor(monitor);
+   }
+
+   public void actionPerformed(ActionEvent event) {
+      float t = (System.nanoTime() - start) / 1e9f;
+      recomputes.set(0);
+      for(int i = 0; i < shapes.length; i++) {
+         float phase = i * 0.37f;
+         float x = origins[i * 2] + 15 * (float) Math.cos(t + phase);
+         float y = origins[i * 2 + 1] + 15 * (float) Math.sin(t * 1.3f + phase);
+         float scale = 1 + 0.3f * (float) Math.sin(t * 2 + phase);
+         float angle = (t * 90 + i) % 360;
+         if(batched) {
+            AbstractShape shape = (AbstractShape) shapes[i];
+            shape.beginUpdate();
+            animator.update(shape, x, y, scale, angle);
+            shape.endUpdate();
+         } else {
+            animator.update(shapes[i], x, y, scale, angle);
+         }
+      }
+      frameRecomputes = recomputes.get();
+      repaint();
+   }
+
+   protected void paintComponent(Graphics g) {
+      Dimension size = getSize();
+      g.clearRect(0, 0, size.width, size.height);
+      Graphics2D g2 = (Graphics2D) g;
+      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      for(int i = 0; i < shapes.length; i++) {
+         Demo.drawShape(g2, shapes[i], COLORS[i % COLORS.length]);
+      }
+      recordFrame();
+      paintHud(g2);
+   }
+
+   private void recordFrame() {
+      long now = System.nanoTime();
+      if(lastFrame != 0) {
+         frameTimes[frames % FRAMES] = now - lastFrame;
+         frames++;
+      }
+      lastFrame = now;
+
+      // refresh the HUD twice per second so it stays readable
+      if(now - hudTime < 500000000L) return;
+      long allocated = allocatedBytes();
+      if(hudTime != 0 && allocated >= 0) {
+         allocationRate = (allocated - hudAllocated) / ((now - hudTime) / 1e9) / (1024 * 1024);
+      }
+      hudTime = now;
+      hudAllocated = allocated;
+
+      int n = Math.min(frames, FRAMES);
+      long[] sorted = new long[n];
+      System.arraycopy(frameTimes, 0, sorted, 0, n);
+      Arrays.sort(sorted);
+      long total = 0;
+      for(long frameTime : sorted) total += frameTime;
+      hud = new String[] {
+         type + " x " + shapes.length + (batched ? " (batched)" : "") + (async ? " (background)" : ""),
+         String.format("FPS %.1f", n == 0 ? 0 : n / (total / 1e9)),
+         String.format("frame p50 %.1f  p95 %.1f  p99 %.1f ms", percentile(sorted, 0.5), percentile(sorted, 0.95), percentile(sorted, 0.99)),
+         "recomputes/frame " + frameRecomputes,
+         allocationRate < 0 ? "allocation n/a" : String.format("allocation %.1f MB/s", allocationRate)
+      };
+   }
+
+   private void paintHud(Graphics2D g) {
+      FontMetrics metrics = g.getFontMetrics();
+      int width = 0;
+      for(String line : hud) width = Math.max(width, metrics.stringWidth(line));
+      int lineHeight = metrics.getHeight();
+      g.setColor(HUD);
+      g.fillRect(5, 5, width + 10, hud.length * lineHeight + 10);
+      g.setColor(Color.WHITE);
+      for(int i = 0; i < hud.length; i++) {
+         g.drawString(hud[i], 10, 10 + metrics.getAscent() + i * lineHeight);
+      }
+   }
+
+   private static double percentile(long[] sorted, double p) {
+      if(sorted.length == 0) return 0;
+      return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * p) - 1)] / 1e6;
+   }
+
+   // bytes allocated by the event dispatch thread, which both mutates and paints the shapes
+   private static long allocatedBytes() {
+      ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      if(threads instanceof com.sun.management.ThreadMXBean) {
+         return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+      return -1;
+   }
+
+   /**
+    * Creates shapes of one type and animates them through their setters.
+    */
+   interface Animator {
+      Shape create(float x, float y);
+      void update(Shape shape, float x, float y, float scale, float angle);
+   }
+
+   /**
+    * Animators by shape type, keyed like {@link Demo#SCENES}.
+    */
+   static final Map<String, Animator> ANIMATORS = new LinkedHashMap<String, Animator>();
+   static {
+      ANIMATORS.put("Arrow", new Animator() {
+         public Shape create(float x, float y) { return new Arrow(x, y, 20, 12); }
+         public void update(Shape shape, float x, float y, float scale, float angle) {
+            Arrow s = (Arrow) shape;
+            s.setX(x); s.setY(y); s.setWidth(20 * scale); s.setAngle(angle);
+         }
+      });
+      ANIMATORS.put("Balloon", new Animator() {
+         public Shape create(float x, float y) { return new Balloon(x, y, 20, 20, 5, 8, 4, Balloon.TAB_AT_BOTTOM, 0.5f); }
+         public void update(Shape shape, float x, float y, float scale, float angle) {
+            Balloon s = (Balloon) shape;
+            s.setX(x); s.setY(y); s.setWidth(20 * scale); s.setTabDisplacement(angle / 360);
+         }
+      });
+      ANIMATORS.put("Cross", new Animator() {
+         public Shape create(float x, float y) { return new Cross(x, y, 10, 6, 0, 0.5f); }
+         public void update(Shape shape, float x, float y, float scale, float angle) {
+            Cross s = (Cross) shape;
+            s.setCx(x); s.setCy(y); s.setRadius(10 * scale); s.setAngle(angle);
+         }
+      });
+      ANIMATORS.put("Donut", new Animator() {
+         public Shape create(float x, float y) { return new Donut(x, y, 10, 4, 6); }
+         public void update(Shape shape, float x, float y, float scale, float angle) {
+            Donut s = (Donut) shape;
+            s.setCx(x); s.setCy(y); s.setOr(10 * scale); s.setAngle(angle);
+         }
+      });
+      ANIMATORS.put("MultiRoundRectangle", new Animator() {
+         public Shape create(float x, float y) { return new MultiRoundRectangle(x, y, 20, 12, 4, 0, 0, 4); }
+         public void update(Shape shape, float x, float y, float scale, float angle) {
+            MultiRoundRectangle s = (MultiRoundRectangle) shape;
+            s.setX(x); s.setY(y); s.setWidth(20 * scale); s.setHeight(12 * scale);
+         }
+      });
+      ANIMATORS.put("Rays", new Animator() {
+         public Shape create(float x, float y) { return new Rays(x, y, 10, 5); }
+         public void update(Shape shape, float x, float y, float scale, float angle) {
+            Rays s = (Rays) shape;
+            s.setCx(x); s.setCy(y); s.setRadius(10 * scale); s.setAngle(angle);
+         }
+      });
+      ANIMATORS.put("RegularPolygon", new Animator() {
+         public Shape create(float x, float y) { return new RegularPolygon(x, y, 10, 6); }
+         public void update(Shape shape, float x, float y, float scale, float angle) {
+            RegularPolygon s = (RegularPolygon) shape;
+            s.setCx(x); s.setCy(y); s.setRadius(10 * scale); s.setAngle(angle);
+         }
+      });
+      ANIMATORS.put("RoundPin", new Animator() {
+         public Shape create(float x, float y) { return new RoundPin(x, y, 6); }
+         public void update(Shape shape, float x, float y, float scale, float angle) {
+            RoundPin s = (RoundPin) shape;
+            s.setCx(x); s.setCy(y); s.setRadius(6 * scale); s.setAngle(angle);
+         }
+      });
+      ANIMATORS.put("Star", new Animator() {
+         public Shape create(float x, float y) { return new Star(x, y, 10, 4, 5); }
+         public void update(Shape shape, float x, float y, float scale, float angle) {
+            Star s = (Star) shape;
+            s.setCx(x); s.setCy(y); s.setOr(10 * scale); s.setAngle(angle);
+         }
+      });
+      ANIMATORS.put("Triangle", new Animator() {
+         public Shape create(float x, float y) { return new Triangle(x, y, 20, 0, true); }
+         public void update(Shape shape, float x, float y, float scale, float angle) {
+            Triangle s = (Triangle) shape;
+            s.setX(x); s.setY(y); s.setWidth(20 * scale); s.setAngle(angle);
+         }
+      });
+   }
+}
@@ -1,74 +1,76 @@
 package org.codehaus.griffon.jsilhouette.geom
 
 import groovy.text.SimpleTemplateEngine
+import java.awt.Dimension
+import java.awt.image.BufferedImage
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import javax.imageio.ImageIO
 
 def basedir = args[0]
 def apidocs =  new File(basedir, 'build/docs/javadoc')
 def javadocs = new File(basedir, 'build/classes/examples')
 def basepckg = 'org.codehaus.griffon.jsilhouette.geom'
 
-def templateEngine = new SimpleTemplateEngine()
-def template = '''
-
-import java.awt.Robot
-import javax.imageio.ImageIO
-import java.awt.image.BufferedImage
-import ${package_name}.${class_name}
-
-def frame = ${class_name}.buildUI()
-/*
-frame.visible = true
-Thread.sleep(500)
-ImageIO.write(
-  new Robot().createScreenCapture(frame.bounds),
-  "png",
-  targetFile
-)
-frame.visible = false
-*/
-frame.visible = true
-def canvas = frame.contentPane.components[0]
-def image = new BufferedImage(
-   canvas.size.width as int,
-   canvas.size.height as int,
-   BufferedImage.TYPE_INT_RGB
-)
-def g = image.createGraphics()
-canvas.paint(g)
-g.dispose()
-ImageIO.write(
-  image,
-  "png",
-  targetFile
-)
-frame.visible = false
-'''
-
-def shapes = []
+// renders every *Example.canvas() straight into an image, no frames are created so
+// this works with java.awt.headless=true; examples are processed in parallel
+def threads = args.length > 1 ? args[1] as int : Runtime.runtime.availableProcessors()
 def examplesDir = new File(javadocs,basepckg.replace('.',File.separator))
 def apidocsDir = new File(apidocs,basepckg.replace('.',File.separator))
+def sourcesDir = new File(basedir,'src/examples/java/' + basepckg.replace('.',File.separator))
+def classLoader = getClass().classLoader
 
-examplesDir.eachFileMatch({it.endsWith("Example.class")}) { shapeFile ->
-   def shape = (shapeFile.name - "Example.class")
-   shapes << shape
-   def binding = [
-     package_name: basepckg,
-     class_name: shapeFile.name - ".class"
-   ]
-   def script = templateEngine.createTemplate(template).make(binding)
-   binding = new Binding()
-   binding.setVariable("targetFile", new File(apidocsDir,"${shape}.png"))
-   new GroovyShell(getClass().classLoader,binding).evaluate(script.toString())
+// the canvas takes the size the example gives to its frame
+def canvasSize = { String shape ->
+   def matcher = new File(sourcesDir,"${shape}Example.java").text =~ /setSize\(\s*new\s+Dimension\(\s*(\d+)\s*,\s*(\d+)\s*\)/
+   matcher.find() ? new Dimension(matcher.group(1) as int, matcher.group(2) as int) : new Dimension(130,160)
+}
+
+def renderImage = { String shape, File targetFile ->
+   def canvas = Class.forName("${basepckg}.${shape}Example", true, classLoader).canvas()
+   canvas.size = canvasSize(shape)
+   def image = new BufferedImage(
+      canvas.size.width as int,
+      canvas.size.height as int,
+      BufferedImage.TYPE_INT_RGB
+   )
+   def g = image.createGraphics()
+   try {
+      canvas.paint(g)
+   } finally {
+      g.dispose()
+   }
+   ImageIO.write(image, "png", targetFile)
 }
 
-apidocsDir.eachFileMatch({(it - ".html") in shapes}) { shapeFile ->
-   template = shapeFile.text
+def fillTemplate = { String shape, File shapeFile ->
    def java2html = []
-   new File(examplesDir, (shapeFile.name - ".html" + "Example.java.html")).eachLine{ line -> java2html << line }
+   new File(examplesDir, "${shape}Example.java.html").eachLine{ line -> java2html << line }
    def code = java2html[14..-6].join("")
    def binding = [
-      img: """<img src="${shapeFile.name - '.html'}.png"/>""",
+      img: """<img src="${shape}.png"/>""",
       code: code
    ]
-   shapeFile.text = templateEngine.createTemplate(template).make(binding).toString()
+   shapeFile.text = new SimpleTemplateEngine().createTemplate(shapeFile.text).make(binding).toString()
+}
+
+def shapes = []
+examplesDir.eachFileMatch({it.endsWith("Example.class")}) { shapeFile ->
+   shapes << (shapeFile.name - "Example.class")
+}
+
+def executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, shapes.size())))
+try {
+   def tasks = shapes.collect { shape ->
+      executor.submit({
+         renderImage(shape, new File(apidocsDir,"${shape}.png"))
+         def shapeFile = new File(apidocsDir,"${shape}.html")
+         if(shapeFile.exists()) fillTemplate(shape, shapeFile)
+         shape
+      } as Callable)
+   }
+   // rethrows the first failure
+   tasks.each { it.get() }
+} finally {
+   executor.shutdownNow()
 }
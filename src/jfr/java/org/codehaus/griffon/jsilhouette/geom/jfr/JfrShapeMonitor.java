@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom.jfr;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+
+import org.codehaus.griffon.jsilhouette.geom.AbstractShape;
+import org.codehaus.griffon.jsilhouette.geom.ShapeMonitor;
+import org.codehaus.griffon.jsilhouette.geom.ShapeMonitorAdapter;
+import org.codehaus.griffon.jsilhouette.geom.ShapeUtils;
+
+/**
+ * Emits {@link ShapeCalculationEvent}s and {@link ShapeRotationEvent}s to Java Flight Recorder.<p>
+ * Install it with {@link #install()} or with <tt>-Djsilhouette.monitors=org.codehaus.griffon.jsilhouette.geom.jfr.JfrShapeMonitor</tt>,
+ * then enable the events in a recording, i.e.
+ * <tt>-XX:StartFlightRecording:+org.codehaus.griffon.jsilhouette.ShapeCalculation#enabled=true</tt>.
+ * While the events are disabled the monitor only checks a flag.
+ *
+ * @author Andres Almiray
+ */
+public class JfrShapeMonitor extends ShapeMonitorAdapter {
+   private static final JfrShapeMonitor INSTANCE = new JfrShapeMonitor();
+
+   /**
+    * Registers the monitor unless one is registered already, i.e. through
+    * <tt>-Djsilhouette.monitors</tt>, events are emitted once either way.
+    */
+   public static synchronized void install() {
+      for( ShapeMonitor monitor : ShapeUtils.getShapeMonitors() ) {
+         if( monitor instanceof JfrShapeMonitor ) {
+            return;
+         }
+      }
+      ShapeUtils.addShapeMonitor( INSTANCE );
+   }
+
+   /**
+    * Removes every registered JfrShapeMonitor, including one created through
+    * <tt>-Djsilhouette.monitors</tt>.
+    */
+   public static synchronized void uninstall() {
+      for( ShapeMonitor monitor : ShapeUtils.getShapeMonitors() ) {
+         if( monitor instanceof JfrShapeMonitor ) {
+            ShapeUtils.removeShapeMonitor( monitor );
+         }
+      }
+   }
+
+   public Object calculationStarted( AbstractShape shape, String trigger ) {
+      ShapeCalculationEvent event = new ShapeCalculationEvent();
+      if( !event.isEnabled() ) {
+         return null;
+      }
+      event.begin();
+      return event;
+   }
+
+   public void calculationFinished( Object token, AbstractShape shape, Shape geometry, String trigger,
+         int areaOperations ) {
+      if( token == null ) {
+         return;
+      }
+      ShapeCalculationEvent event = (ShapeCalculationEvent) token;
+      event.end();
+      if( event.shouldCommit() ) {
+         event.shapeClass = shape.getClass();
+         event.trigger = trigger != null ? trigger : "<init>";
+         event.parameters = shape.toString();
+         event.areaOperations = areaOperations;
+         event.segments = countSegments( geometry );
+         event.commit();
+      }
+   }
+
+   public Object rotationStarted( Shape shape, float angle, float x, float y ) {
+      ShapeRotationEvent event = new ShapeRotationEvent();
+      if( !event.isEnabled() ) {
+         return null;
+      }
+      event.shapeClass = shape.getClass();
+      event.angle = angle;
+      event.x = x;
+      event.y = y;
+      event.begin();
+      return event;
+   }
+
+   public void rotationFinished( Object token, Shape rotated ) {
+      if( token == null ) {
+         return;
+      }
+      ShapeRotationEvent event = (ShapeRotationEvent) token;
+      event.end();
+      if( event.shouldCommit() ) {
+         event.segments = countSegments( rotated );
+         event.commit();
+      }
+   }
+
+   private static int countSegments( Shape shape ) {
+      int segments = 0;
+      for( PathIterator i = shape.getPathIterator( null ); !i.isDone(); i.next() ) {
+         segments++;
+      }
+      return segments;
+   }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Recorded when <tt>ShapeUtils.rotate()</tt> rotates a shape.<p>
+ * Disabled by default; once enabled only rotations slower than the threshold
+ * (1 ms unless configured otherwise) are recorded.
+ *
+ * @author Andres Almiray
+ */
+@Name( ShapeRotationEvent.NAME )
+@Label( "Shape Rotation" )
+@Description( "ShapeUtils.rotate() rotated a shape" )
+@Category( { "jSilhouette", "Geometry" } )
+@Enabled( false )
+@Threshold( "1 ms" )
+@StackTrace( true )
+public class ShapeRotationEvent extends Event {
+   public static final String NAME = "org.codehaus.griffon.jsilhouette.ShapeRotation";
+
+   @Label( "Shape Class" )
+   public Class<?> shapeClass;
+
+   @Label( "Angle" )
+   public float angle;
+
+   @Label( "X" )
+   public float x;
+
+   @Label( "Y" )
+   public float y;
+
+   @Label( "Segments" )
+   @Description( "Number of path segments of the rotated shape" )
+   public int segments;
+}
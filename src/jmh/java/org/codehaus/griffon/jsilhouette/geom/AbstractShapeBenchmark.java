@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operations measured for every shape: construction, setter triggered recomputation,
+ * hit testing, bounds and path iteration.<p>
+ * Subclasses define the parameter space and how the shape under test is created.
+ *
+ * @author Andres Almiray
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public abstract class AbstractShapeBenchmark {
+   private static final int PROBES = 64;
+
+   protected Shape shape;
+   private AffineTransform transform;
+   private double[] xs;
+   private double[] ys;
+   private Rectangle2D[] rectangles;
+   private int probe;
+   private boolean toggle;
+
+   protected abstract Shape createShape();
+
+   protected abstract float getSize();
+
+   @Setup
+   public void setup() {
+      shape = createShape();
+      transform = AffineTransform.getRotateInstance( Math.toRadians( 30 ), getSize(), getSize() );
+      double[][] probes = ShapeFixtures.probes( shape, PROBES );
+      xs = probes[0];
+      ys = probes[1];
+      rectangles = new Rectangle2D[PROBES];
+      float side = getSize() / 8;
+      for( int i = 0; i < PROBES; i++ ) {
+         rectangles[i] = new Rectangle2D.Double( xs[i], ys[i], side, side );
+      }
+   }
+
+   @Benchmark
+   public Shape construct() {
+      return createShape();
+   }
+
+   @Benchmark
+   public Shape setCenter() {
+      toggle = !toggle;
+      ShapeFixtures.setCenter( shape, toggle ? getSize() + 1 : getSize() );
+      return shape;
+   }
+
+   @Benchmark
+   public Shape setAngle() {
+      toggle = !toggle;
+      ShapeFixtures.setAngle( shape, toggle ? 30 : 0 );
+      return shape;
+   }
+
+   @Benchmark
+   public Shape setSize() {
+      toggle = !toggle;
+      ShapeFixtures.setSize( shape, toggle ? getSize() * 1.5f : getSize() );
+      return shape;
+   }
+
+   @Benchmark
+   public boolean contains() {
+      int i = nextProbe();
+      return shape.contains( xs[i], ys[i] );
+   }
+
+   @Benchmark
+   public boolean intersects() {
+      return shape.intersects( rectangles[nextProbe()] );
+   }
+
+   @Benchmark
+   public Rectangle2D getBounds2D() {
+      return shape.getBounds2D();
+   }
+
+   @Benchmark
+   public double pathIterator() {
+      return ShapeFixtures.traverse( shape.getPathIterator( null ) );
+   }
+
+   @Benchmark
+   public double transformedPathIterator() {
+      return ShapeFixtures.traverse( shape.getPathIterator( transform ) );
+   }
+
+   @Benchmark
+   public double flattenedPathIterator() {
+      return ShapeFixtures.traverse( shape.getPathIterator( transform, 0.25 ) );
+   }
+
+   private int nextProbe() {
+      probe = (probe + 1) % PROBES;
+      return probe;
+   }
+}
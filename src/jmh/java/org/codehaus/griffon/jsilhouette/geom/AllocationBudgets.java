@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Measures the bytes allocated per operation for every shape and checks them against
+ * the budgets found in <tt>allocation-budgets.properties</tt>.<p>
+ * Operations are construction, every setter (alternating between two valid values so the
+ * shape is recomputed on each call), <tt>contains</tt> and path iteration. Allocation is
+ * read with <tt>com.sun.management.ThreadMXBean.getThreadAllocatedBytes()</tt> after the
+ * operation has been warmed up, so escape analysis is already in effect.<p>
+ * Usage: <tt>AllocationBudgets [budgets file] [report file]</tt>, the process exits with
+ * status 1 when any budget is exceeded.
+ *
+ * @author Andres Almiray
+ */
+public final class AllocationBudgets {
+   private static final int WARMUP = 5000;
+   private static final int ITERATIONS = 2000;
+   private static final float SIZE = 100;
+
+   private static final Map<String, String[]> SETTERS = new LinkedHashMap<String, String[]>();
+   static {
+      SETTERS.put( "Almond", new String[] { "Cx:100:101", "Cy:100:101", "Width:50:60", "Angle:0:30" } );
+      SETTERS.put( "Arrow", new String[] { "X:0:1", "Y:0:1", "Width:200:210", "Height:100:110", "Rise:0.5:0.6",
+            "Depth:0.5:0.6", "Angle:0:30" } );
+      SETTERS.put( "Asterisk", new String[] { "Cx:100:101", "Cy:100:101", "Radius:100:110", "Width:25:30",
+            "Beams:5:6", "Roundness:0.5:0.6", "Angle:0:30" } );
+      SETTERS.put( "Astroid", new String[] { "Cx:100:101", "Cy:100:101", "Radius:100:110", "Angle:0:30" } );
+      SETTERS.put( "Balloon", new String[] { "X:0:1", "Y:0:1", "Width:200:210", "Height:100:110", "Arc:20:25",
+            "TabWidth:50:55", "TabHeight:25:30", "TabDisplacement:0.5:0.6", "TabLocation:0:1",
+            "AnglePosition:-1:1" } );
+      SETTERS.put( "Cross", new String[] { "Cx:100:101", "Cy:100:101", "Radius:100:110", "Width:50:60",
+            "Roundness:0.5:0.6", "Angle:0:30" } );
+      SETTERS.put( "Donut", new String[] { "Cx:100:101", "Cy:100:101", "Or:100:110", "Ir:50:60", "Sides:5:6",
+            "Angle:0:30" } );
+      SETTERS.put( "Fan", new String[] { "Cx:100:101", "Cy:100:101", "Blades:5:6", "BladeCx:0.5:0.6",
+            "Angle:0:30", "Blade" } );
+      SETTERS.put( "Lauburu", new String[] { "Cx:100:101", "Cy:100:101", "Radius:100:110", "Angle:0:30" } );
+      SETTERS.put( "MultiRoundRectangle", new String[] { "X:0:1", "Y:0:1", "Width:200:210", "Height:100:110",
+            "TopLeftWidth:25:20", "TopLeftHeight:25:20", "TopRightWidth:25:20", "TopRightHeight:25:20",
+            "BottomLeftWidth:25:20", "BottomLeftHeight:25:20", "BottomRightWidth:25:20",
+            "BottomRightHeight:25:20", "TopLeft:25:20", "TopRight:25:20", "BottomLeft:25:20",
+            "BottomRight:25:20" } );
+      SETTERS.put( "Rays", new String[] { "Cx:100:101", "Cy:100:101", "Radius:100:110", "Rays:5:6",
+            "Extent:0.5:0.6", "Rounded:false:true", "Angle:0:30" } );
+      SETTERS.put( "RegularPolygon", new String[] { "Cx:100:101", "Cy:100:101", "Radius:100:110", "Sides:5:6",
+            "Angle:0:30" } );
+      SETTERS.put( "ReuleauxTriangle", new String[] { "X:0:1", "Y:200:201", "Width:200:210", "Angle:0:30",
+            "RotateAtCenter:false:true" } );
+      SETTERS.put( "RoundPin", new String[] { "Cx:100:101", "Cy:100:101", "Radius:50:55", "Height:100:110",
+            "Angle:0:30" } );
+      SETTERS.put( "Star", new String[] { "Cx:100:101", "Cy:100:101", "Or:100:110", "Ir:50:60", "Count:5:6",
+            "Angle:0:30" } );
+      SETTERS.put( "Triangle", new String[] { "X:0:1", "Y:200:201", "Width:200:210", "Height:100:110",
+            "Angle:0:30", "AnglePosition:-1:1", "RotateAtCenter:false:true" } );
+   }
+
+   private static Object sink;
+
+   private AllocationBudgets(){}
+
+   private interface Operation {
+      Object run( int i ) throws Exception;
+   }
+
+   public static void main( String[] args ) throws Exception {
+      Properties budgets = new Properties();
+      InputStream in = args.length > 0 ? new FileInputStream( args[0] )
+            : AllocationBudgets.class.getResourceAsStream( "allocation-budgets.properties" );
+      if( in == null ) {
+         throw new IllegalStateException( "allocation-budgets.properties could not be found" );
+      }
+      try {
+         budgets.load( in );
+      } finally {
+         in.close();
+      }
+
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      if( !threads.isThreadAllocatedMemorySupported() ) {
+         throw new IllegalStateException( "this JVM does not support measuring thread allocated memory" );
+      }
+      threads.setThreadAllocatedMemoryEnabled( true );
+
+      List<String> lines = new ArrayList<String>();
+      List<String> failures = new ArrayList<String>();
+      lines.add( String.format( "%-42s %12s %12s", "operation", "bytes/op", "budget" ) );
+      for( Map.Entry<String, Operation> entry : operations().entrySet() ) {
+         String name = entry.getKey();
+         long bytes = measure( threads, entry.getValue() );
+         String budget = budgets.getProperty( name );
+         String status = "";
+         if( budget == null ) {
+            status = " (no budget)";
+         } else if( bytes > Long.parseLong( budget.trim() ) ) {
+            status = " EXCEEDED";
+            failures.add( name + " allocates " + bytes + " bytes/op, budget is " + budget.trim() );
+         }
+         lines.add( String.format( "%-42s %12d %12s%s", name, bytes, budget == null ? "-" : budget.trim(), status ) );
+      }
+
+      PrintWriter report = args.length > 1 ? new PrintWriter( new FileWriter( new File( args[1] ) ) ) : null;
+      for( String line : lines ) {
+         System.out.println( line );
+         if( report != null ) report.println( line );
+      }
+      if( report != null ) report.close();
+
+      if( !failures.isEmpty() ) {
+         System.err.println( failures.size() + " allocation budget(s) exceeded:" );
+         for( String failure : failures ) {
+            System.err.println( "   " + failure );
+         }
+         System.exit( 1 );
+      }
+   }
+
+   private static long measure( com.sun.management.ThreadMXBean threads, Operation operation ) throws Exception {
+      long id = Thread.currentThread().getId();
+      for( int i = 0; i < WARMUP; i++ ) {
+         sink = operation.run( i );
+      }
+      long before = threads.getThreadAllocatedBytes( id );
+      for( int i = 0; i < ITERATIONS; i++ ) {
+         sink = operation.run( i );
+      }
+      long after = threads.getThreadAllocatedBytes( id );
+      return (after - before) / ITERATIONS;
+   }
+
+   private static Map<String, Operation> operations() throws Exception {
+      Map<String, Operation> operations = new LinkedHashMap<String, Operation>();
+      for( Map.Entry<String, String[]> entry : SETTERS.entrySet() ) {
+         final String type = entry.getKey();
+         operations.put( type + ".construct", new Operation() {
+            public Object run( int i ) {
+               return ShapeFixtures.create( type, 5, SIZE );
+            }
+         } );
+         for( String setter : entry.getValue() ) {
+            operations.put( type + ".set" + setter.split( ":" )[0], setter( type, setter ) );
+         }
+         final Shape shape = ShapeFixtures.create( type, 5, SIZE );
+         final double[][] probes = ShapeFixtures.probes( shape, 64 );
+         operations.put( type + ".contains", new Operation() {
+            public Object run( int i ) {
+               return shape.contains( probes[0][i & 63], probes[1][i & 63] ) ? Boolean.TRUE : Boolean.FALSE;
+            }
+         } );
+         operations.put( type + ".pathIterator", new Operation() {
+            public Object run( int i ) {
+               return Double.valueOf( ShapeFixtures.traverse( shape.getPathIterator( null ) ) );
+            }
+         } );
+      }
+      return operations;
+   }
+
+   private static Operation setter( String type, String setter ) throws Exception {
+      final Shape shape = ShapeFixtures.create( type, 5, SIZE );
+      String[] parts = setter.split( ":" );
+      if( "Blade".equals( parts[0] ) ) {
+         final Fan fan = (Fan) shape;
+         final Shape[] blades = { new Rectangle2D.Float( 0, 0, 25, 100 ), new Ellipse2D.Float( 0, 0, 25, 100 ) };
+         return new Operation() {
+            public Object run( int i ) {
+               fan.setBlade( blades[i & 1] );
+               return fan;
+            }
+         };
+      }
+
+      Method method = null;
+      for( Method m : shape.getClass().getMethods() ) {
+         if( m.getName().equals( "set" + parts[0] ) && m.getParameterTypes().length == 1 ) {
+            method = m;
+            break;
+         }
+      }
+      if( method == null ) {
+         throw new IllegalArgumentException( type + " has no setter for " + parts[0] );
+      }
+      final Method m = method;
+      // arguments are boxed up front so that invoking the setter does not allocate
+      final Object[][] values = { { convert( m.getParameterTypes()[0], parts[1] ) },
+            { convert( m.getParameterTypes()[0], parts[2] ) } };
+      return new Operation() {
+         public Object run( int i ) throws Exception {
+            return m.invoke( shape, values[i & 1] );
+         }
+      };
+   }
+
+   private static Object convert( Class<?> type, String value ) {
+      if( type == int.class ) {
+         return Integer.valueOf( value );
+      } else if( type == boolean.class ) {
+         return Boolean.valueOf( value );
+      }
+      return Float.valueOf( value );
+   }
+}
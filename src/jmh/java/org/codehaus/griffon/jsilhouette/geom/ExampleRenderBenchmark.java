@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Paints the canvases of the <tt>*Example</tt> classes (the ones used for the javadoc images)
+ * into a headless <tt>TYPE_INT_ARGB</tt> image. Each canvas creates, fills and draws a single
+ * shape, so the reported time is the time per shape.
+ *
+ * @author Andres Almiray
+ */
+@State( Scope.Thread )
+@BenchmarkMode( { Mode.Throughput, Mode.AverageTime } )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class ExampleRenderBenchmark {
+   private static final int WIDTH = 130;
+   private static final int HEIGHT = 160;
+
+   @Param( { "Almond", "Arrow", "Asterisk", "Astroid", "Balloon", "Cross", "Donut", "Fan", "Lauburu",
+         "MultiRoundRectangle", "Rays", "RegularPolygon", "ReuleauxTriangle", "RoundPin", "Star", "Triangle" } )
+   public String example;
+
+   @Param( { "1", "4" } )
+   public float scale;
+
+   @Param( { "identity", "rotate", "shear" } )
+   public String transform;
+
+   private JPanel canvas;
+   private RenderTarget target;
+
+   @Setup
+   public void setup() throws Exception {
+      Class<?> type = Class.forName( ExampleRenderBenchmark.class.getPackage().getName() + "." + example + "Example" );
+      canvas = (JPanel) type.getMethod( "canvas" ).invoke( null );
+      canvas.setSize( WIDTH, HEIGHT );
+   }
+
+   @Setup( Level.Iteration )
+   public void createTarget() {
+      // example canvases always turn antialiasing on
+      target = new RenderTarget( WIDTH, HEIGHT, scale, transform, true, "fill+draw" );
+   }
+
+   @TearDown( Level.Iteration )
+   public void disposeTarget() {
+      target.dispose();
+   }
+
+   @Benchmark
+   public BufferedImage paintExample() {
+      canvas.paint( target.getGraphics() );
+      return target.getImage();
+   }
+}
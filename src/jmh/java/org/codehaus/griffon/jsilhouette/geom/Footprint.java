@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.instrument.Instrumentation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reports the deep retained size of shape instances.<p>
+ * Must be run as a java agent (<tt>-javaagent:footprint-agent.jar</tt>) so that object sizes
+ * can be obtained from {@link Instrumentation#getObjectSize(Object)}. The object graph of each
+ * shape is walked through its instance fields, on Java 9+ the JDK packages holding geometry
+ * internals (<tt>java.awt.geom</tt>, <tt>sun.awt.geom</tt>, <tt>java.util</tt>) must be opened
+ * with <tt>--add-opens</tt>, objects that can not be inspected are counted shallowly.<p>
+ * Usage: <tt>Footprint [report file]</tt>
+ *
+ * @author Andres Almiray
+ */
+public final class Footprint {
+   private static final int NONE = -1;
+   private static final Map<String, int[]> COMPLEXITIES = new LinkedHashMap<String, int[]>();
+   static {
+      COMPLEXITIES.put( "Almond", new int[] { NONE } );
+      COMPLEXITIES.put( "Arrow", new int[] { NONE } );
+      COMPLEXITIES.put( "Asterisk", new int[] { 2, 8, 32 } );
+      COMPLEXITIES.put( "Astroid", new int[] { NONE } );
+      COMPLEXITIES.put( "Balloon", new int[] { NONE } );
+      COMPLEXITIES.put( "Cross", new int[] { NONE } );
+      COMPLEXITIES.put( "Donut", new int[] { 0, 6, 64 } );
+      COMPLEXITIES.put( "Fan", new int[] { 2, 8, 32 } );
+      COMPLEXITIES.put( "Lauburu", new int[] { NONE } );
+      COMPLEXITIES.put( "MultiRoundRectangle", new int[] { NONE } );
+      COMPLEXITIES.put( "Rays", new int[] { 2, 16, 128 } );
+      COMPLEXITIES.put( "RegularPolygon", new int[] { 3, 16, 128 } );
+      COMPLEXITIES.put( "ReuleauxTriangle", new int[] { NONE } );
+      COMPLEXITIES.put( "RoundPin", new int[] { NONE } );
+      COMPLEXITIES.put( "Star", new int[] { 5, 50, 500 } );
+      COMPLEXITIES.put( "Triangle", new int[] { NONE } );
+   }
+
+   private static volatile Instrumentation instrumentation;
+
+   private Footprint(){}
+
+   public static void premain( String args, Instrumentation inst ) {
+      instrumentation = inst;
+   }
+
+   public static void main( String[] args ) throws Exception {
+      if( instrumentation == null ) {
+         throw new IllegalStateException( "Footprint must be run with -javaagent pointing to the footprint agent jar" );
+      }
+      Properties baseline = new Properties();
+      InputStream in = Footprint.class.getResourceAsStream( "footprint-baseline.properties" );
+      if( in != null ) {
+         try {
+            baseline.load( in );
+         } finally {
+            in.close();
+         }
+      }
+
+      List<String> lines = new ArrayList<String>();
+      lines.add( String.format( "%-20s %10s %8s %12s %12s %8s", "shape", "complexity", "objects", "bytes",
+            "baseline", "delta" ) );
+      for( Map.Entry<String, int[]> entry : COMPLEXITIES.entrySet() ) {
+         for( int complexity : entry.getValue() ) {
+            Shape shape = ShapeFixtures.create( entry.getKey(), complexity, 100 );
+            long[] size = deepSize( shape );
+            String key = complexity == NONE ? entry.getKey() : entry.getKey() + "." + complexity;
+            String expected = baseline.getProperty( key );
+            String delta = "";
+            if( expected != null ) {
+               long d = size[1] - Long.parseLong( expected.trim() );
+               delta = d == 0 ? "" : String.format( "%+d%%", Math.round( d * 100.0 / Long.parseLong( expected.trim() ) ) );
+            }
+            lines.add( String.format( "%-20s %10s %8d %12d %12s %8s", entry.getKey(), complexity == NONE ? "-"
+                  : String.valueOf( complexity ), size[0], size[1], expected == null ? "-" : expected.trim(), delta ) );
+         }
+      }
+
+      PrintWriter report = args.length > 0 ? new PrintWriter( new FileWriter( new File( args[0] ) ) ) : null;
+      for( String line : lines ) {
+         System.out.println( line );
+         if( report != null ) report.println( line );
+      }
+      if( report != null ) report.close();
+   }
+
+   /**
+    * Returns the number of objects and the bytes retained by <tt>root</tt>, following instance
+    * fields and array elements but never static fields or classes.
+    */
+   public static long[] deepSize( Object root ) {
+      Map<Object, Object> visited = new IdentityHashMap<Object, Object>();
+      List<Object> pending = new ArrayList<Object>();
+      pending.add( root );
+      long objects = 0;
+      long bytes = 0;
+      while( !pending.isEmpty() ) {
+         Object o = pending.remove( pending.size() - 1 );
+         if( o == null || visited.containsKey( o ) || o instanceof Class || o instanceof ClassLoader
+               || o instanceof Thread ) {
+            continue;
+         }
+         visited.put( o, o );
+         objects++;
+         bytes += instrumentation.getObjectSize( o );
+
+         Class<?> type = o.getClass();
+         if( type.isArray() ) {
+            if( !type.getComponentType().isPrimitive() ) {
+               for( int i = 0, n = Array.getLength( o ); i < n; i++ ) {
+                  pending.add( Array.get( o, i ) );
+               }
+            }
+            continue;
+         }
+         for( Class<?> c = type; c != null; c = c.getSuperclass() ) {
+            for( Field field : c.getDeclaredFields() ) {
+               if( Modifier.isStatic( field.getModifiers() ) || field.getType().isPrimitive() ) {
+                  continue;
+               }
+               try {
+                  field.setAccessible( true );
+                  pending.add( field.get( o ) );
+               } catch( RuntimeException e ) {
+                  // package not opened to us, count the holder shallowly
+               } catch( IllegalAccessException e ) {
+                  // same as above
+               }
+            }
+         }
+      }
+      return new long[] { objects, bytes };
+   }
+}
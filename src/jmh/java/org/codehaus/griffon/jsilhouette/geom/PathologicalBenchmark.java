@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds shapes with extreme parameters: thousands of beams and blades, star and
+ * polygon counts in the 100k range, tiny and huge radii and centers at the origin.<p>
+ * Each scenario reads <tt>Type/complexity/size</tt>, an optional <tt>/origin</tt> suffix
+ * centers the shape at (0,0). Every measurement is a single construction, so pair it
+ * with {@link PeakHeapProfiler} to record heap growth as well:
+ * <pre>gradle jmh -PjmhArgs="PathologicalBenchmark -prof org.codehaus.griffon.jsilhouette.geom.PeakHeapProfiler"</pre>
+ *
+ * @author Andres Almiray
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 5 )
+@Fork( value = 1, jvmArgsAppend = { "-Djava.awt.headless=true", "-Xmx2g" } )
+public class PathologicalBenchmark {
+   @Param( {
+      "Asterisk/500/100", "Asterisk/1000/100", "Asterisk/2000/100", "Asterisk/5000/100",
+      "Fan/500/100", "Fan/1000/100", "Fan/2000/100", "Fan/5000/100",
+      "Star/10000/100", "Star/100000/100",
+      "RegularPolygon/100000/100",
+      "Rays/10000/100", "Rays/100000/100",
+      "Donut/10000/100", "Donut/100000/100",
+      "Star/5/0.001", "Star/5/1000000",
+      "Asterisk/100/0.001", "Asterisk/100/1000000",
+      "Lauburu/0/0.001", "Lauburu/0/1000000",
+      "Lauburu/0/100/origin", "Asterisk/100/100/origin", "Fan/100/100/origin", "Star/100000/100/origin"
+   } )
+   public String scenario;
+
+   private String type;
+   private int complexity;
+   private float size;
+   private boolean origin;
+
+   @Setup
+   public void setup() {
+      String[] parts = scenario.split( "/" );
+      if( parts.length < 3 || parts.length > 4 || (parts.length == 4 && !"origin".equals( parts[3] )) ) {
+         throw new IllegalArgumentException( "scenario '" + scenario + "' is not Type/complexity/size[/origin]" );
+      }
+      type = parts[0];
+      complexity = Integer.parseInt( parts[1] );
+      size = Float.parseFloat( parts[2] );
+      origin = parts.length == 4;
+   }
+
+   @Benchmark
+   public Shape construct() {
+      return origin ? ShapeFixtures.createAtOrigin( type, complexity, size )
+            : ShapeFixtures.create( type, complexity, size );
+   }
+
+   @Benchmark
+   public double constructAndIterate() {
+      return ShapeFixtures.traverse( construct().getPathIterator( null ) );
+   }
+}
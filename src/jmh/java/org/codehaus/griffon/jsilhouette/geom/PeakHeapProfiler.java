@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * Reports how far the heap grew during each iteration.<p>
+ * The heap is collected and the peak usage of every heap pool is reset before an
+ * iteration starts, afterwards the sum of the peaks minus the heap in use at the
+ * start is reported as <tt>peak.heap</tt> (MB, the worst iteration wins). Enable it with
+ * <tt>-prof org.codehaus.griffon.jsilhouette.geom.PeakHeapProfiler</tt>.<p>
+ * The peaks are sampled by the collector, so the figure is a lower bound, and it is only
+ * meaningful for single shot iterations where one operation dominates the heap.
+ *
+ * @author Andres Almiray
+ */
+public class PeakHeapProfiler implements InternalProfiler {
+   private final List<MemoryPoolMXBean> pools = new ArrayList<MemoryPoolMXBean>();
+   private long baseline;
+
+   public PeakHeapProfiler() {
+      for( MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans() ) {
+         if( pool.getType() == MemoryType.HEAP && pool.isValid() ) {
+            pools.add( pool );
+         }
+      }
+   }
+
+   public String getDescription() {
+      return "Heap growth (peak pool usage) per iteration";
+   }
+
+   public void beforeIteration( BenchmarkParams benchmarkParams, IterationParams iterationParams ) {
+      System.gc();
+      System.gc();
+      baseline = 0;
+      for( MemoryPoolMXBean pool : pools ) {
+         pool.resetPeakUsage();
+         baseline += pool.getUsage().getUsed();
+      }
+   }
+
+   public Collection<? extends Result<?>> afterIteration( BenchmarkParams benchmarkParams,
+         IterationParams iterationParams, IterationResult result ) {
+      long peak = 0;
+      for( MemoryPoolMXBean pool : pools ) {
+         peak += pool.getPeakUsage().getUsed();
+      }
+      List<Result<?>> results = new ArrayList<Result<?>>();
+      results.add( new ScalarResult( "peak.heap", Math.max( 0, peak - baseline ) / (1024.0 * 1024.0), "MB",
+            AggregationPolicy.MAX ) );
+      return results;
+   }
+}
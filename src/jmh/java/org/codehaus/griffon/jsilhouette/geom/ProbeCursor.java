@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per thread probe cursor for benchmarks that share shapes between threads.
+ *
+ * @author Andres Almiray
+ */
+@State( Scope.Thread )
+public class ProbeCursor {
+   public static final int PROBES = 64;
+
+   private int index;
+
+   public int next() {
+      index = (index + 1) % PROBES;
+      return index;
+   }
+
+   /**
+    * Returns the area covered by <tt>shape</tt> under every angle and center the concurrent
+    * writers use, any bounds outside of it come from a partially recomputed shape.
+    */
+   static Rectangle2D envelope( String type, float size ) {
+      Shape shape = ShapeFixtures.create( type, 5, size );
+      Rectangle2D envelope = shape.getBounds2D();
+      for( int angle = 0; angle < 360; angle += 5 ) {
+         ShapeFixtures.setAngle( shape, angle );
+         for( int i = 0; i < 2; i++ ) {
+            ShapeFixtures.setCenter( shape, size + i );
+            envelope.add( shape.getBounds2D() );
+         }
+      }
+      envelope.setRect( envelope.getX() - 1, envelope.getY() - 1, envelope.getWidth() + 2, envelope.getHeight() + 2 );
+      return envelope;
+   }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link SharedReadBenchmark} with 1, 2, 4 ... N threads and prints the throughput of
+ * each operation along with its speedup over the single threaded run.<p>
+ * Usage: <tt>ReadScaling [max threads [JMH options]]</tt>, max threads defaults to the number
+ * of available processors.
+ *
+ * @author Andres Almiray
+ */
+public final class ReadScaling {
+   private ReadScaling(){}
+
+   public static void main( String[] args ) throws Exception {
+      int max = args.length > 0 ? Integer.parseInt( args[0] ) : Runtime.getRuntime().availableProcessors();
+      String[] jmhArgs = args.length > 1 ? Arrays.copyOfRange( args, 1, args.length ) : new String[0];
+      List<Integer> threads = new ArrayList<Integer>();
+      for( int t = 1; t < max; t *= 2 ) {
+         threads.add( t );
+      }
+      threads.add( max );
+
+      // benchmark + params -> throughput per thread count
+      Map<String, Map<Integer, Double>> results = new LinkedHashMap<String, Map<Integer, Double>>();
+      for( int t : threads ) {
+         Options options = new OptionsBuilder()
+               .parent( new CommandLineOptions( jmhArgs ) )
+               .include( SharedReadBenchmark.class.getName() )
+               .threads( t )
+               .build();
+         Collection<RunResult> runs = new Runner( options ).run();
+         for( RunResult run : runs ) {
+            String key = run.getParams().getBenchmark().replaceAll( ".*\\.", "" ) + " "
+                  + run.getParams().getParam( "type" );
+            Map<Integer, Double> row = results.get( key );
+            if( row == null ) {
+               row = new LinkedHashMap<Integer, Double>();
+               results.put( key, row );
+            }
+            row.put( t, run.getPrimaryResult().getScore() );
+         }
+      }
+
+      StringBuilder header = new StringBuilder( String.format( "%-36s", "benchmark (ops/us, speedup)" ) );
+      for( int t : threads ) {
+         header.append( String.format( " %18s", t + " thread" + (t > 1 ? "s" : "") ) );
+      }
+      System.out.println( header );
+      for( Map.Entry<String, Map<Integer, Double>> row : results.entrySet() ) {
+         StringBuilder line = new StringBuilder( String.format( "%-36s", row.getKey() ) );
+         Double single = row.getValue().get( threads.get( 0 ) );
+         for( int t : threads ) {
+            Double score = row.getValue().get( t );
+            line.append( String.format( " %10.2f (%4.1fx)", score, score / single ) );
+         }
+         System.out.println( line );
+      }
+   }
+}
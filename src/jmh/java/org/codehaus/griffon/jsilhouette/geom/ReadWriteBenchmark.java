@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Readers hit test and iterate a shape while a writer thread keeps calling its setters
+ * (angle and center), exposing contention and torn state caused by recomputing geometry
+ * without synchronization.<p>
+ * Readers count the failures they observe: <tt>errors</tt> are exceptions thrown while
+ * reading, <tt>torn</tt> are bounds that no complete geometry could have produced.
+ *
+ * @author Andres Almiray
+ */
+@State( Scope.Group )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class ReadWriteBenchmark {
+   @Param( { "Star", "RegularPolygon", "Donut", "Asterisk", "Lauburu", "MultiRoundRectangle" } )
+   public String type;
+
+   @Param( { "100" } )
+   public float size;
+
+   private Shape shape;
+   private Rectangle2D envelope;
+   private double[] xs;
+   private double[] ys;
+   private int writes;
+
+   @AuxCounters( AuxCounters.Type.EVENTS )
+   @State( Scope.Thread )
+   public static class Failures {
+      public long errors;
+      public long torn;
+
+      @Setup( Level.Iteration )
+      public void reset() {
+         errors = 0;
+         torn = 0;
+      }
+   }
+
+   @Setup
+   public void setup() {
+      shape = ShapeFixtures.create( type, 5, size );
+      envelope = ProbeCursor.envelope( type, size );
+      double[][] probes = ShapeFixtures.probes( shape, ProbeCursor.PROBES );
+      xs = probes[0];
+      ys = probes[1];
+   }
+
+   @Benchmark
+   @Group( "readWrite" )
+   @GroupThreads( 3 )
+   public boolean read( ProbeCursor cursor, Failures failures ) {
+      try {
+         int i = cursor.next();
+         boolean inside = shape.contains( xs[i], ys[i] );
+         Rectangle2D bounds = shape.getBounds2D();
+         if( bounds.isEmpty() || !envelope.contains( bounds ) ) {
+            failures.torn++;
+         }
+         ShapeFixtures.traverse( shape.getPathIterator( null ) );
+         return inside;
+      } catch( RuntimeException e ) {
+         failures.errors++;
+         return false;
+      }
+   }
+
+   @Benchmark
+   @Group( "readWrite" )
+   @GroupThreads( 1 )
+   public Shape write() {
+      writes++;
+      if( (writes & 1) == 0 ) {
+         ShapeFixtures.setAngle( shape, (writes * 7) % 360 );
+      } else {
+         ShapeFixtures.setCenter( shape, (writes & 2) == 0 ? size : size + 1 );
+      }
+      return shape;
+   }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Renders shapes into an ARGB image using a given scale, transform and antialiasing setting.
+ *
+ * @author Andres Almiray
+ */
+final class RenderTarget implements Demo.ShapePainter {
+   private final BufferedImage image;
+   private final Graphics2D graphics;
+   private final String operation;
+   private long shapes;
+
+   /**
+    * @param width image width before scaling
+    * @param height image height before scaling
+    * @param scale uniform scale applied to the image size and to the graphics
+    * @param transform one of 'identity', 'rotate' or 'shear'
+    * @param antialias whether shapes are antialiased or not
+    * @param operation one of 'fill', 'draw' or 'fill+draw'
+    */
+   public RenderTarget( int width, int height, float scale, String transform, boolean antialias, String operation ) {
+      this.operation = operation;
+      image = new BufferedImage( Math.max( 1, (int) (width * scale) ), Math.max( 1, (int) (height * scale) ),
+            BufferedImage.TYPE_INT_ARGB );
+      graphics = image.createGraphics();
+      graphics.setRenderingHint( RenderingHints.KEY_ANTIALIASING, antialias ? RenderingHints.VALUE_ANTIALIAS_ON
+            : RenderingHints.VALUE_ANTIALIAS_OFF );
+      graphics.scale( scale, scale );
+      if( "rotate".equals( transform ) ) {
+         graphics.transform( AffineTransform.getRotateInstance( Math.toRadians( 30 ), width / 2, height / 2 ) );
+      } else if( "shear".equals( transform ) ) {
+         graphics.transform( AffineTransform.getShearInstance( 0.3, 0.1 ) );
+      } else if( !"identity".equals( transform ) ) {
+         throw new IllegalArgumentException( "unknown transform '" + transform + "'" );
+      }
+   }
+
+   public Graphics2D getGraphics() {
+      return graphics;
+   }
+
+   public BufferedImage getImage() {
+      return image;
+   }
+
+   /**
+    * Returns the number of shapes painted since the last call.
+    */
+   public long drainShapes() {
+      long count = shapes;
+      shapes = 0;
+      return count;
+   }
+
+   public void paint( Shape shape, Color color ) {
+      if( "fill".equals( operation ) ) {
+         graphics.setColor( color );
+         graphics.fill( shape );
+      } else if( "draw".equals( operation ) ) {
+         graphics.setColor( color );
+         graphics.draw( shape );
+      } else {
+         Demo.drawShape( graphics, shape, color );
+      }
+      shapes++;
+   }
+
+   public void dispose() {
+      graphics.dispose();
+   }
+}
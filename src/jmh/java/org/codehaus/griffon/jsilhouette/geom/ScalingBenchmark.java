@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures how the shapes with a variable number of vertices scale with that number.<p>
+ * Each scenario reads <tt>Type/count</tt>, where count are the points of a {@link Star},
+ * the sides of a {@link RegularPolygon} or {@link Donut} (0 for circular donuts), the
+ * rays of {@link Rays}, the beams of an {@link Asterisk} or the blades of a {@link Fan}.
+ * Pick scenarios with JMH's <tt>-p</tt> option:
+ * <pre>gradle jmh -PjmhArgs="ScalingBenchmark -p scenario=Star/5,Star/10000"</pre>
+ *
+ * @author Andres Almiray
+ */
+@State( Scope.Thread )
+public class ScalingBenchmark extends AbstractShapeBenchmark {
+   @Param( {
+      "Star/5", "Star/10", "Star/100", "Star/1000", "Star/10000",
+      "RegularPolygon/3", "RegularPolygon/10", "RegularPolygon/100", "RegularPolygon/1000", "RegularPolygon/10000",
+      "Rays/2", "Rays/10", "Rays/100", "Rays/1000", "Rays/5000",
+      "Asterisk/2", "Asterisk/5", "Asterisk/20", "Asterisk/100", "Asterisk/500",
+      "Fan/2", "Fan/5", "Fan/20", "Fan/100", "Fan/500",
+      "Donut/0", "Donut/5", "Donut/50", "Donut/500", "Donut/5000"
+   } )
+   public String scenario;
+
+   @Param( { "10", "1000" } )
+   public float size;
+
+   protected Shape createShape() {
+      String[] parts = scenario.split( "/" );
+      if( parts.length != 2 ) {
+         throw new IllegalArgumentException( "scenario '" + scenario + "' is not Type/count" );
+      }
+      return ShapeFixtures.create( parts[0], Integer.parseInt( parts[1] ), size );
+   }
+
+   protected float getSize() {
+      return size;
+   }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Color;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Renders the scenes shown by {@link Demo} into a headless <tt>TYPE_INT_ARGB</tt> image.<p>
+ * <tt>paintScene</tt> creates the shapes on every invocation, just like the demo does on
+ * every repaint, while <tt>renderScene</tt> only fills/draws shapes created during setup.
+ * The <tt>shapes</tt> secondary result reports shapes per second in throughput mode and
+ * the time spent per shape in average time mode (run with <tt>-tu ns</tt> for ns per shape).
+ *
+ * @author Andres Almiray
+ */
+@State( Scope.Thread )
+@BenchmarkMode( { Mode.Throughput, Mode.AverageTime } )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class SceneRenderBenchmark {
+   private static final int WIDTH = 400;
+   private static final int HEIGHT = 400;
+
+   @Param( { "Arrow", "Balloon", "Cross", "Donut", "MultiRoundRectangle", "Rays", "RegularPolygon", "RoundPin",
+         "Star", "Triangle" } )
+   public String scene;
+
+   @Param( { "true", "false" } )
+   public boolean antialias;
+
+   @Param( { "0.5", "1", "4" } )
+   public float scale;
+
+   @Param( { "identity", "rotate", "shear" } )
+   public String transform;
+
+   @Param( { "fill+draw", "fill", "draw" } )
+   public String operation;
+
+   private Demo.Scene demoScene;
+   private RenderTarget target;
+   private Shape[] shapes;
+   private Color[] colors;
+
+   @AuxCounters( AuxCounters.Type.OPERATIONS )
+   @State( Scope.Thread )
+   public static class Counters {
+      public long shapes;
+   }
+
+   @Setup
+   public void setup() {
+      demoScene = Demo.SCENES.get( scene );
+      if( demoScene == null ) {
+         throw new IllegalArgumentException( "unknown scene '" + scene + "'" );
+      }
+      final List<Shape> shapeList = new ArrayList<Shape>();
+      final List<Color> colorList = new ArrayList<Color>();
+      demoScene.paint( new Demo.ShapePainter() {
+         public void paint( Shape shape, Color color ) {
+            shapeList.add( shape );
+            colorList.add( color );
+         }
+      } );
+      shapes = shapeList.toArray( new Shape[shapeList.size()] );
+      colors = colorList.toArray( new Color[colorList.size()] );
+   }
+
+   @Setup( Level.Iteration )
+   public void createTarget() {
+      target = new RenderTarget( WIDTH, HEIGHT, scale, transform, antialias, operation );
+   }
+
+   @TearDown( Level.Iteration )
+   public void disposeTarget() {
+      target.dispose();
+   }
+
+   @Benchmark
+   public BufferedImage paintScene( Counters counters ) {
+      demoScene.paint( target );
+      counters.shapes += target.drainShapes();
+      return target.getImage();
+   }
+
+   @Benchmark
+   public BufferedImage renderScene( Counters counters ) {
+      for( int i = 0; i < shapes.length; i++ ) {
+         target.paint( shapes[i], colors[i] );
+      }
+      counters.shapes += target.drainShapes();
+      return target.getImage();
+   }
+}
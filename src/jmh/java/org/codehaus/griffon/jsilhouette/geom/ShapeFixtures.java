@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Creates and mutates shapes on behalf of the benchmarks.<p>
+ * Every shape is laid out inside a box of <tt>size * 2</tt> starting at the origin,
+ * <tt>complexity</tt> is used as count/sides/beams/rays/blades where applicable.
+ *
+ * @author Andres Almiray
+ */
+final class ShapeFixtures {
+   private ShapeFixtures(){}
+
+   public static Shape create( String type, int complexity, float size ) {
+      float s = size;
+      if( "Almond".equals( type ) ) {
+         return new Almond( s, s, s / 2, 0 );
+      } else if( "Arrow".equals( type ) ) {
+         return new Arrow( 0, 0, s * 2, s, 0.5f, 0.5f, 0 );
+      } else if( "Asterisk".equals( type ) ) {
+         return new Asterisk( s, s, s, s / 4, complexity, 0, 0.5f );
+      } else if( "Astroid".equals( type ) ) {
+         return new Astroid( s, s, s, 0 );
+      } else if( "Balloon".equals( type ) ) {
+         return new Balloon( 0, 0, s * 2, s, s / 5, s / 2, s / 4, Balloon.TAB_AT_BOTTOM, 0.5f );
+      } else if( "Cross".equals( type ) ) {
+         return new Cross( s, s, s, s / 2, 0, 0.5f );
+      } else if( "Donut".equals( type ) ) {
+         return new Donut( s, s, s, s / 2, complexity, 0 );
+      } else if( "Fan".equals( type ) ) {
+         return new Fan( s, s, new Rectangle2D.Float( 0, 0, s / 4, s ), complexity, 0, 0.5f );
+      } else if( "Lauburu".equals( type ) ) {
+         return new Lauburu( s, s, s, 0 );
+      } else if( "MultiRoundRectangle".equals( type ) ) {
+         return new MultiRoundRectangle( 0, 0, s * 2, s, s / 4, s / 4, s / 4, s / 4 );
+      } else if( "Rays".equals( type ) ) {
+         return new Rays( s, s, s, complexity, 0, 0.5f, false );
+      } else if( "RegularPolygon".equals( type ) ) {
+         return new RegularPolygon( s, s, s, Math.max( 3, complexity ), 0 );
+      } else if( "ReuleauxTriangle".equals( type ) ) {
+         return new ReuleauxTriangle( 0, s * 2, s * 2, 0 );
+      } else if( "RoundPin".equals( type ) ) {
+         return new RoundPin( s, s, s / 2, s, 0 );
+      } else if( "Star".equals( type ) ) {
+         return new Star( s, s, s, s / 2, complexity, 0 );
+      } else if( "Triangle".equals( type ) ) {
+         return new Triangle( 0, s * 2, s * 2, 0 );
+      }
+      throw new IllegalArgumentException( "unknown shape type '" + type + "'" );
+   }
+
+   /**
+    * Like {@link #create(String, int, float)} but centers the shape at (0,0),
+    * only shapes with a center are supported.
+    */
+   public static Shape createAtOrigin( String type, int complexity, float size ) {
+      float s = size;
+      if( "Asterisk".equals( type ) ) {
+         return new Asterisk( 0, 0, s, s / 4, complexity, 0, 0.5f );
+      } else if( "Donut".equals( type ) ) {
+         return new Donut( 0, 0, s, s / 2, complexity, 0 );
+      } else if( "Fan".equals( type ) ) {
+         return new Fan( 0, 0, new Rectangle2D.Float( 0, 0, s / 4, s ), complexity, 0, 0.5f );
+      } else if( "Lauburu".equals( type ) ) {
+         return new Lauburu( 0, 0, s, 0 );
+      } else if( "Rays".equals( type ) ) {
+         return new Rays( 0, 0, s, complexity, 0, 0.5f, false );
+      } else if( "RegularPolygon".equals( type ) ) {
+         return new RegularPolygon( 0, 0, s, Math.max( 3, complexity ), 0 );
+      } else if( "Star".equals( type ) ) {
+         return new Star( 0, 0, s, s / 2, complexity, 0 );
+      }
+      throw new IllegalArgumentException( "shape type '" + type + "' can not be centered at the origin" );
+   }
+
+   /**
+    * Moves the shape by changing its center (or its origin when the shape has no settable center).
+    */
+   public static void setCenter( Shape shape, float value ) {
+      if( shape instanceof Almond ) {
+         ((Almond) shape).setCx( value );
+      } else if( shape instanceof Arrow ) {
+         ((Arrow) shape).setX( value );
+      } else if( shape instanceof Asterisk ) {
+         ((Asterisk) shape).setCx( value );
+      } else if( shape instanceof Astroid ) {
+         ((Astroid) shape).setCx( value );
+      } else if( shape instanceof Balloon ) {
+         ((Balloon) shape).setX( value );
+      } else if( shape instanceof Cross ) {
+         ((Cross) shape).setCx( value );
+      } else if( shape instanceof Donut ) {
+         ((Donut) shape).setCx( value );
+      } else if( shape instanceof Fan ) {
+         ((Fan) shape).setCx( value );
+      } else if( shape instanceof Lauburu ) {
+         ((Lauburu) shape).setCx( value );
+      } else if( shape instanceof MultiRoundRectangle ) {
+         ((MultiRoundRectangle) shape).setX( value );
+      } else if( shape instanceof Rays ) {
+         ((Rays) shape).setCx( value );
+      } else if( shape instanceof RegularPolygon ) {
+         ((RegularPolygon) shape).setCx( value );
+      } else if( shape instanceof ReuleauxTriangle ) {
+         ((ReuleauxTriangle) shape).setX( value );
+      } else if( shape instanceof RoundPin ) {
+         ((RoundPin) shape).setCx( value );
+      } else if( shape instanceof Star ) {
+         ((Star) shape).setCx( value );
+      } else if( shape instanceof Triangle ) {
+         ((Triangle) shape).setX( value );
+      }
+   }
+
+   /**
+    * Rotates the shape, shapes without an angle property are moved vertically instead.
+    */
+   public static void setAngle( Shape shape, float value ) {
+      if( shape instanceof Almond ) {
+         ((Almond) shape).setAngle( value );
+      } else if( shape instanceof Arrow ) {
+         ((Arrow) shape).setAngle( value );
+      } else if( shape instanceof Asterisk ) {
+         ((Asterisk) shape).setAngle( value );
+      } else if( shape instanceof Astroid ) {
+         ((Astroid) shape).setAngle( value );
+      } else if( shape instanceof Balloon ) {
+         ((Balloon) shape).setY( value );
+      } else if( shape instanceof Cross ) {
+         ((Cross) shape).setAngle( value );
+      } else if( shape instanceof Donut ) {
+         ((Donut) shape).setAngle( value );
+      } else if( shape instanceof Fan ) {
+         ((Fan) shape).setAngle( value );
+      } else if( shape instanceof Lauburu ) {
+         ((Lauburu) shape).setAngle( value );
+      } else if( shape instanceof MultiRoundRectangle ) {
+         ((MultiRoundRectangle) shape).setY( value );
+      } else if( shape instanceof Rays ) {
+         ((Rays) shape).setAngle( value );
+      } else if( shape instanceof RegularPolygon ) {
+         ((RegularPolygon) shape).setAngle( value );
+      } else if( shape instanceof ReuleauxTriangle ) {
+         ((ReuleauxTriangle) shape).setAngle( value );
+      } else if( shape instanceof RoundPin ) {
+         ((RoundPin) shape).setAngle( value );
+      } else if( shape instanceof Star ) {
+         ((Star) shape).setAngle( value );
+      } else if( shape instanceof Triangle ) {
+         ((Triangle) shape).setAngle( value );
+      }
+   }
+
+   /**
+    * Grows the shape's main dimension (radius, outer radius or width) to <tt>value</tt>.
+    * Fans have no size property, their blade center is moved instead.
+    */
+   public static void setSize( Shape shape, float value ) {
+      if( shape instanceof Almond ) {
+         ((Almond) shape).setWidth( value / 2 );
+      } else if( shape instanceof Arrow ) {
+         ((Arrow) shape).setWidth( value * 2 );
+      } else if( shape instanceof Asterisk ) {
+         ((Asterisk) shape).setRadius( value );
+      } else if( shape instanceof Astroid ) {
+         ((Astroid) shape).setRadius( value );
+      } else if( shape instanceof Balloon ) {
+         ((Balloon) shape).setWidth( value * 2 );
+      } else if( shape instanceof Cross ) {
+         ((Cross) shape).setRadius( value );
+      } else if( shape instanceof Donut ) {
+         ((Donut) shape).setOr( value );
+      } else if( shape instanceof Fan ) {
+         ((Fan) shape).setBladeCx( ((Fan) shape).getBladeCx() == 0.5f ? 0.25f : 0.5f );
+      } else if( shape instanceof Lauburu ) {
+         ((Lauburu) shape).setRadius( value );
+      } else if( shape instanceof MultiRoundRectangle ) {
+         ((MultiRoundRectangle) shape).setWidth( value * 2 );
+      } else if( shape instanceof Rays ) {
+         ((Rays) shape).setRadius( value );
+      } else if( shape instanceof RegularPolygon ) {
+         ((RegularPolygon) shape).setRadius( value );
+      } else if( shape instanceof ReuleauxTriangle ) {
+         ((ReuleauxTriangle) shape).setWidth( value * 2 );
+      } else if( shape instanceof RoundPin ) {
+         ((RoundPin) shape).setRadius( value / 2 );
+      } else if( shape instanceof Star ) {
+         ((Star) shape).setOr( value );
+      } else if( shape instanceof Triangle ) {
+         ((Triangle) shape).setWidth( value * 2 );
+      }
+   }
+
+   /**
+    * Walks every segment of the iterator, returns a value derived from all coordinates
+    * so that the traversal can not be optimized away.
+    */
+   public static double traverse( PathIterator iterator ) {
+      double[] coords = new double[6];
+      double sum = 0;
+      while( !iterator.isDone() ) {
+         int type = iterator.currentSegment( coords );
+         switch( type ) {
+            case PathIterator.SEG_CUBICTO:
+               sum += coords[0] + coords[1] + coords[2] + coords[3] + coords[4] + coords[5];
+               break;
+            case PathIterator.SEG_QUADTO:
+               sum += coords[0] + coords[1] + coords[2] + coords[3];
+               break;
+            case PathIterator.SEG_MOVETO:
+            case PathIterator.SEG_LINETO:
+               sum += coords[0] + coords[1];
+               break;
+            default:
+               sum += type;
+               break;
+         }
+         iterator.next();
+      }
+      return sum;
+   }
+
+   /**
+    * Spreads <tt>count</tt> probe points over (and slightly beyond) the shape's bounds.
+    */
+   public static double[][] probes( Shape shape, int count ) {
+      Rectangle2D bounds = shape.getBounds2D();
+      int side = (int) Math.ceil( Math.sqrt( count ) );
+      double[] xs = new double[count];
+      double[] ys = new double[count];
+      for( int i = 0; i < count; i++ ) {
+         double fx = ((i % side) + 0.5) / side;
+         double fy = ((i / side) + 0.5) / side;
+         xs[i] = bounds.getX() - (bounds.getWidth() * 0.1) + (fx * bounds.getWidth() * 1.2);
+         ys[i] = bounds.getY() - (bounds.getHeight() * 0.1) + (fy * bounds.getHeight() * 1.2);
+      }
+      return new double[][] { xs, ys };
+   }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hit tests and iterates a single shape instance shared by all benchmark threads.<p>
+ * Run it with increasing thread counts (<tt>-t</tt>) or through {@link ReadScaling}
+ * to see how reads scale.
+ *
+ * @author Andres Almiray
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class SharedReadBenchmark {
+   @Param( { "Star", "RegularPolygon", "Donut", "Asterisk", "Lauburu", "MultiRoundRectangle" } )
+   public String type;
+
+   @Param( { "100" } )
+   public float size;
+
+   private Shape shape;
+   private double[] xs;
+   private double[] ys;
+   private Rectangle2D[] rectangles;
+
+   @Setup
+   public void setup() {
+      shape = ShapeFixtures.create( type, 5, size );
+      double[][] probes = ShapeFixtures.probes( shape, ProbeCursor.PROBES );
+      xs = probes[0];
+      ys = probes[1];
+      rectangles = new Rectangle2D[ProbeCursor.PROBES];
+      for( int i = 0; i < ProbeCursor.PROBES; i++ ) {
+         rectangles[i] = new Rectangle2D.Double( xs[i], ys[i], size / 8, size / 8 );
+      }
+   }
+
+   @Benchmark
+   public boolean contains( ProbeCursor cursor ) {
+      int i = cursor.next();
+      return shape.contains( xs[i], ys[i] );
+   }
+
+   @Benchmark
+   public boolean intersects( ProbeCursor cursor ) {
+      return shape.intersects( rectangles[cursor.next()] );
+   }
+
+   @Benchmark
+   public double pathIterator() {
+      return ShapeFixtures.traverse( shape.getPathIterator( null ) );
+   }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Joins <tt>parts</tt> ellipses, each overlapping its neighbours on a ring or (with
+ * <tt>layout=grid</tt>) apart from each other, by adding them one by one into an Area
+ * and with {@link ShapeUtils#unionAll(Shape[])}. Pass <tt>-Djsilhouette.unionThreads=N</tt>
+ * through <tt>-jvmArgsAppend</tt> to change the threads merging them.
+ *
+ * @author Andres Almiray
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class UnionBenchmark {
+   @Param( { "10", "100", "500" } )
+   public int parts;
+
+   @Param( { "ring", "grid" } )
+   public String layout;
+
+   private Shape[] shapes;
+
+   @Setup
+   public void setup() {
+      shapes = new Shape[parts];
+      int columns = (int) Math.ceil( Math.sqrt( parts ) );
+      for( int i = 0; i < parts; i++ ) {
+         if( "grid".equals( layout ) ) {
+            shapes[i] = new Ellipse2D.Float( (i % columns) * 20, (i / columns) * 20, 15, 10 );
+         } else {
+            double a = Math.PI * 2 * i / parts;
+            shapes[i] = new Ellipse2D.Double( 500 + (400 * Math.cos( a )), 500 + (400 * Math.sin( a )), 60, 30 );
+         }
+      }
+   }
+
+   @Benchmark
+   public Area sequential() {
+      Area union = new Area();
+      for( int i = 0; i < shapes.length; i++ ) {
+         union.add( new Area( shapes[i] ) );
+      }
+      return union;
+   }
+
+   @Benchmark
+   public Area unionAll() {
+      return ShapeUtils.unionAll( shapes );
+   }
+}
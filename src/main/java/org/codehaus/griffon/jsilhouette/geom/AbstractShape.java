@@ -0,0 +1,642 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Base class for shapes whose geometry is calculated from their properties.<p>
+ * Subclasses build their geometry in {@link #calculateShape()} and call
+ * {@link #recalculate(String)} whenever a property changes, every {@link Shape}
+ * method delegates to the last calculated geometry. Geometry built as an {@link Area}
+ * is frozen into a compact immutable path once calculated. Registered
+ * {@link ShapeMonitor}s are notified of each calculation.<p>
+ * A lazy shape only remembers that its geometry is stale when a property changes,
+ * the geometry is calculated once on the next query. Shapes are eager unless
+ * {@link #setLazyByDefault(boolean)} was called or the system property
+ * <tt>jsilhouette.lazy</tt> is <tt>true</tt>, {@link #setLazy(boolean)} overrides the
+ * default per instance.<p>
+ * Several properties can be changed with a single calculation by wrapping the setter
+ * calls in {@link #beginUpdate()}/{@link #endUpdate()} or {@link #update(Runnable)},
+ * properties that are validated against each other are then checked once at the end.<p>
+ * An asynchronous shape ({@link #setAsync(Executor, GeometryListener)}) calculates its
+ * geometry on an executor instead, setters return right away and every {@link Shape} method
+ * keeps delegating to the last geometry published until the calculation of the latest
+ * properties completes. A calculation whose properties change while it runs is abandoned and
+ * started over, only geometries of properties that were not changed meanwhile are published.
+ *
+ * @author Andres Almiray
+ */
+public abstract class AbstractShape implements Shape, Cloneable {
+   private static volatile boolean lazyByDefault = Boolean.getBoolean( "jsilhouette.lazy" );
+
+   private Shape shape;
+   private int areaOperations;
+   private boolean lazy = lazyByDefault;
+   private volatile boolean dirty;
+   private String pendingTrigger;
+   private volatile int updates;
+   private volatile boolean updated;
+   private String updateTrigger;
+   private Background background;
+
+   /**
+    * Returns whether new shapes defer calculating their geometry until it is queried.
+    */
+   public static boolean isLazyByDefault() {
+      return lazyByDefault;
+   }
+
+   /**
+    * Sets whether new shapes defer calculating their geometry until it is queried,
+    * existing shapes are not affected.
+    */
+   public static void setLazyByDefault( boolean lazy ) {
+      lazyByDefault = lazy;
+   }
+
+   public boolean isLazy() {
+      return lazy;
+   }
+
+   /**
+    * Switches between lazy and eager calculation, a stale geometry is calculated
+    * right away when switching to eager.
+    */
+   public void setLazy( boolean lazy ) {
+      this.lazy = lazy;
+      if( !lazy ) {
+         validate();
+      }
+   }
+
+   /**
+    * Returns whether this shape calculates its geometry in the background.
+    */
+   public boolean isAsync() {
+      return background != null;
+   }
+
+   /**
+    * Switches between calculating the geometry in the background, on a shared executor
+    * that uses virtual threads where available, and calculating it on the calling thread.
+    *
+    * @see #setAsync(Executor, GeometryListener)
+    */
+   public void setAsync( boolean async ) {
+      setAsync( async ? ShapeUtils.backgroundExecutor() : null, null );
+   }
+
+   /**
+    * Calculates the geometry on <tt>executor</tt>, or on the calling thread when null,
+    * without notifying anyone of published geometries.
+    *
+    * @see #setAsync(Executor, GeometryListener)
+    */
+   public void setAsync( Executor executor ) {
+      setAsync( executor, null );
+   }
+
+   /**
+    * Calculates the geometry on <tt>executor</tt> whenever a property changes, or on the
+    * calling thread again when <tt>executor</tt> is null. At most one calculation of this
+    * shape runs at a time, a calculation the executor rejects runs on the calling thread.
+    * A calculation pending when switching moves to the new executor, switching back to the
+    * calling thread calculates it right away unless this shape is lazy.<p>
+    * Like setters this method is meant to be called from a single thread.
+    *
+    * @param executor the executor calculations run on, null to calculate on the calling thread
+    * @param listener notified on the executor thread after each geometry is published, may be null
+    */
+   public void setAsync( Executor executor, GeometryListener listener ) {
+      Background previous = background;
+      if( previous != null ? previous.executor == executor && previous.listener == listener : executor == null ) {
+         return;
+      }
+      background = executor != null ? new Background( this, executor, listener ) : null;
+      if( previous == null || !previous.retire() ) {
+         return;
+      }
+      if( background != null || updates > 0 ) {
+         recalculate( previous.trigger );
+         return;
+      }
+      // waits for a calculation still running on the previous executor
+      synchronized( this ) {
+         if( !dirty ) {
+            pendingTrigger = previous.trigger;
+            dirty = true;
+         }
+      }
+      if( !lazy ) {
+         validate();
+      }
+   }
+
+   /**
+    * Returns the background calculation of the latest properties, its result is the geometry
+    * it published. The calculation is cancelled when this shape stops being asynchronous,
+    * or when an update that changes the properties again is in progress once it completes.
+    * Failures of <tt>calculateShape()</tt> are reported through the future, the previous
+    * geometry is kept. Returns a completed future holding the current geometry when no
+    * calculation is pending.
+    */
+   public Future<Shape> getCalculation() {
+      Background b = background;
+      Future<Shape> pending = b != null ? b.pending() : null;
+      if( pending != null ) {
+         return pending;
+      }
+      FutureTask<Shape> done = new FutureTask<Shape>( new Runnable() {
+         public void run() {
+         }
+      }, geometry() );
+      done.run();
+      return done;
+   }
+
+   public boolean contains( double x, double y ) {
+      return geometry().contains( x, y );
+   }
+
+   public boolean contains( double x, double y, double w, double h ) {
+      return geometry().contains( x, y, w, h );
+   }
+
+   public boolean contains( Point2D p ) {
+      return geometry().contains( p );
+   }
+
+   public boolean contains( Rectangle2D r ) {
+      return geometry().contains( r );
+   }
+
+   public Rectangle getBounds() {
+      return geometry().getBounds();
+   }
+
+   public Rectangle2D getBounds2D() {
+      return geometry().getBounds2D();
+   }
+
+   public PathIterator getPathIterator( AffineTransform at ) {
+      return geometry().getPathIterator( at );
+   }
+
+   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
+      return geometry().getPathIterator( at, flatness );
+   }
+
+   public boolean intersects( double x, double y, double w, double h ) {
+      return geometry().intersects( x, y, w, h );
+   }
+
+   public boolean intersects( Rectangle2D r ) {
+      return geometry().intersects( r );
+   }
+
+   /**
+    * Starts an update, setters called before the matching {@link #endUpdate()} do not
+    * recalculate the geometry nor validate properties against each other. Updates nest.
+    */
+   public void beginUpdate() {
+      updates++;
+   }
+
+   /**
+    * Ends an update started with {@link #beginUpdate()}. When the outermost update ends
+    * the properties are validated and the geometry is recalculated once if any property
+    * changed.
+    *
+    * @throws IllegalStateException if there is no update in progress
+    * @throws IllegalArgumentException if the final properties are invalid. The previous
+    *         geometry is kept and the properties stay as they were set, the next change
+    *         validates them again before anything is calculated from them
+    */
+   public void endUpdate() {
+      endUpdate( true );
+   }
+
+   /**
+    * Runs <tt>block</tt> inside an update. If <tt>block</tt> throws the update is ended
+    * without validating the properties nor recalculating the geometry, the previous
+    * geometry is kept until the next change validates the properties.
+    */
+   public void update( Runnable block ) {
+      beginUpdate();
+      boolean completed = false;
+      try {
+         block.run();
+         completed = true;
+      } finally {
+         endUpdate( completed );
+      }
+   }
+
+   /**
+    * Returns whether an update is in progress.
+    */
+   public boolean isUpdating() {
+      return updates > 0;
+   }
+
+   private void endUpdate( boolean validateParameters ) {
+      if( updates == 0 ) {
+         throw new IllegalStateException( "endUpdate() called without beginUpdate()" );
+      }
+      if( --updates > 0 || !updated || !validateParameters ) {
+         return;
+      }
+      recalculate( updateTrigger );
+   }
+
+   public String toString() {
+      return getClass().getName() + "[" + paramString() + "]";
+   }
+
+   /**
+    * Returns the properties that define this shape, i.e "cx=5.0,cy=5.0,radius=3.0".
+    */
+   protected abstract String paramString();
+
+   /**
+    * Validates properties that depend on each other, called when an update ends.
+    * Setters skip those checks while {@link #isUpdating()}.
+    *
+    * @throws IllegalArgumentException if the properties are invalid
+    */
+   protected void validateParameters() {
+   }
+
+   /**
+    * Builds the geometry of this shape from its current properties. An {@link Area} result
+    * is copied into a compact path, the Area itself is not retained.
+    */
+   protected abstract Shape calculateShape();
+
+   /**
+    * Replaces the geometry of this shape with a freshly calculated one, lazy shapes
+    * only mark their geometry as stale.
+    *
+    * @param trigger the name of the property that changed, null when called from a constructor
+    */
+   protected final void recalculate( String trigger ) {
+      if( updates > 0 ) {
+         if( !updated ) {
+            updateTrigger = trigger;
+            updated = true;
+         }
+         return;
+      }
+      if( updated ) {
+         // properties changed by an update are validated before anything is calculated from
+         // them, they stay unvalidated if this throws
+         validateParameters();
+         trigger = updateTrigger;
+         updateTrigger = null;
+         updated = false;
+      }
+      if( background != null ) {
+         background.schedule( trigger );
+         return;
+      }
+      if( lazy ) {
+         if( !dirty ) {
+            pendingTrigger = trigger;
+            dirty = true;
+         }
+         return;
+      }
+      calculate( trigger, null );
+   }
+
+   /**
+    * Calculates the geometry if it is stale. Getters of properties derived while
+    * calculating the geometry must call this method first.
+    */
+   protected final void validate() {
+      // the previous geometry is kept while properties changed by an update are unvalidated
+      if( dirty && !updated ) {
+         synchronized( this ) {
+            if( dirty && !updated ) {
+               calculate( pendingTrigger, null );
+            }
+         }
+      }
+   }
+
+   /**
+    * Returns the current geometry of this shape, calculating it first if it is stale.
+    */
+   protected final Shape getShape() {
+      return geometry();
+   }
+
+   private Shape geometry() {
+      validate();
+      return shape;
+   }
+
+   /**
+    * Calculates the geometry and publishes it, through <tt>background</tt> when not null.
+    * The geometry is published before monitors are told, a monitor querying the shape
+    * must not find it stale and calculate it again.
+    *
+    * @return the geometry, null if <tt>background</tt> did not publish it
+    */
+   private Shape calculate( String trigger, Background background ) {
+      ShapeMonitor[] monitors = ShapeUtils.monitors;
+      areaOperations = 0;
+      if( monitors.length == 0 ) {
+         return publish( freeze( calculateShape() ), background );
+      }
+
+      if( monitors.length == 1 ) {
+         Object token = monitors[0].calculationStarted( this, trigger );
+         Shape geometry = freeze( calculateShape() );
+         Shape published = publish( geometry, background );
+         monitors[0].calculationFinished( token, this, geometry, trigger, areaOperations );
+         return published;
+      }
+
+      Object[] tokens = new Object[monitors.length];
+      for( int i = 0; i < monitors.length; i++ ) {
+         tokens[i] = monitors[i].calculationStarted( this, trigger );
+      }
+      Shape geometry = freeze( calculateShape() );
+      Shape published = publish( geometry, background );
+      for( int i = 0; i < monitors.length; i++ ) {
+         monitors[i].calculationFinished( tokens[i], this, geometry, trigger, areaOperations );
+      }
+      return published;
+   }
+
+   private Shape publish( Shape geometry, Background background ) {
+      if( background == null ) {
+         shape = geometry;
+         if( dirty ) {
+            pendingTrigger = null;
+            dirty = false;
+         }
+         return geometry;
+      }
+      return background.publish( geometry ) ? geometry : null;
+   }
+
+   /**
+    * Guards a setter, notifying monitors when the new value leaves the shape unchanged.
+    *
+    * @param property the name of the property being set
+    * @param changed whether the new value differs from the current one
+    * @return <tt>changed</tt>
+    */
+   protected final boolean changed( String property, boolean changed ) {
+      if( !changed ) {
+         ShapeMonitor[] monitors = ShapeUtils.monitors;
+         for( int i = 0; i < monitors.length; i++ ) {
+            monitors[i].setterIgnored( this, property );
+         }
+      } else if( background != null ) {
+         // the setter is about to change a property a running calculation may be reading
+         background.supersede();
+      }
+      return changed;
+   }
+
+   /**
+    * Adds <tt>shape</tt> to <tt>area</tt>, counting the operation.
+    */
+   protected final Area add( Area area, Shape shape ) {
+      area.add( toArea( shape ) );
+      areaOperations++;
+      return area;
+   }
+
+   /**
+    * Subtracts <tt>shape</tt> from <tt>area</tt>, counting the operation.
+    */
+   protected final Area subtract( Area area, Shape shape ) {
+      area.subtract( toArea( shape ) );
+      areaOperations++;
+      return area;
+   }
+
+   /**
+    * Intersects <tt>area</tt> with <tt>shape</tt>, counting the operation.
+    */
+   protected final Area intersect( Area area, Shape shape ) {
+      area.intersect( toArea( shape ) );
+      areaOperations++;
+      return area;
+   }
+
+   /**
+    * Returns the union of <tt>shapes</tt>, see {@link ShapeUtils#unionAll(Shape[])}, counting
+    * one operation per part merged.
+    */
+   protected final Area union( Shape... shapes ) {
+      if( shapes.length > 1 ) {
+         areaOperations += shapes.length - 1;
+      }
+      return ShapeUtils.unionAll( shapes );
+   }
+
+   /**
+    * Returns a copy of <tt>base</tt>, an outline centered at the origin, scaled by
+    * <tt>scale</tt>, rotated by <tt>angle</tt> degrees (in the same direction as
+    * {@link ShapeUtils#rotate(Shape, float, float, float)}) and centered at (cx,cy).
+    * Shapes keep such a base to answer moves, rotations and uniform scaling with a
+    * transform instead of rebuilding their outline.
+    */
+   protected static Shape place( Shape base, float cx, float cy, float scale, float angle ) {
+      AffineTransform at = AffineTransform.getTranslateInstance( cx, cy );
+      if( angle != 0 ) {
+         at.rotate( Math.toRadians( 360 - angle ) );
+      }
+      if( scale != 1 ) {
+         at.scale( scale, scale );
+      }
+      return base instanceof CompactPath ? ((CompactPath) base).transform( at ) : CompactPath.of( base
+            .getPathIterator( at ) );
+   }
+
+   /**
+    * Copies an Area into a compact path, the Vector of curves an Area keeps is several
+    * times larger and slower to iterate. Other shapes are kept as they are.
+    */
+   static Shape freeze( Shape shape ) {
+      return shape instanceof Area ? CompactPath.of( shape ) : shape;
+   }
+
+   private static Area toArea( Shape shape ) {
+      return shape instanceof Area ? (Area) shape : new Area( shape );
+   }
+
+   /**
+    * Calculates the geometry of an asynchronous shape on its executor. A single task runs at
+    * a time, setters called while it runs mark it stale so that it starts over with the
+    * latest properties instead of publishing a geometry that may mix old and new ones.
+    */
+   private static final class Background implements Callable<Shape> {
+      private final AbstractShape owner;
+      private final Executor executor;
+      private final GeometryListener listener;
+      private FutureTask<Shape> task;
+      private String trigger;
+      private boolean stale;
+
+      Background( AbstractShape owner, Executor executor, GeometryListener listener ) {
+         this.owner = owner;
+         this.executor = executor;
+         this.listener = listener;
+      }
+
+      synchronized Future<Shape> pending() {
+         return task;
+      }
+
+      synchronized void supersede() {
+         if( task != null ) {
+            stale = true;
+         }
+      }
+
+      Future<Shape> schedule( String trigger ) {
+         FutureTask<Shape> scheduled;
+         synchronized( this ) {
+            if( task != null ) {
+               stale = true;
+               return task;
+            }
+            scheduled = task = new FutureTask<Shape>( this );
+            this.trigger = trigger;
+         }
+         try {
+            executor.execute( scheduled );
+         } catch( RejectedExecutionException e ) {
+            scheduled.run();
+         }
+         return scheduled;
+      }
+
+      /**
+       * Cancels the pending task, if any.
+       *
+       * @return whether a task was pending
+       */
+      synchronized boolean retire() {
+         if( task == null ) {
+            return false;
+         }
+         task.cancel( false );
+         task = null;
+         return true;
+      }
+
+      public Shape call() {
+         while( true ) {
+            String trigger;
+            synchronized( this ) {
+               if( task == null ) {
+                  return null;
+               }
+               if( stale && (owner.updates > 0 || owner.updated) ) {
+                  // the update schedules a calculation of its final properties once they are valid
+                  retire();
+                  return null;
+               }
+               stale = false;
+               trigger = this.trigger;
+            }
+
+            Shape geometry;
+            try {
+               synchronized( owner ) {
+                  if( pending() == null ) {
+                     return null;
+                  }
+                  geometry = owner.calculate( trigger, this );
+               }
+            } catch( RuntimeException e ) {
+               if( failed() ) {
+                  throw e;
+               }
+               continue;
+            } catch( Error e ) {
+               if( failed() ) {
+                  throw e;
+               }
+               continue;
+            }
+            if( geometry != null ) {
+               if( listener != null ) {
+                  listener.geometryChanged( owner );
+               }
+               return geometry;
+            }
+         }
+      }
+
+      synchronized boolean publish( Shape geometry ) {
+         if( task == null || stale ) {
+            return false;
+         }
+         owner.shape = geometry;
+         // readers call validate() before reading the geometry, this write makes it visible to them
+         owner.dirty = false;
+         task = null;
+         return true;
+      }
+
+      /**
+       * Ends the task after a failed calculation unless the properties changed meanwhile,
+       * the failure may come from reading them halfway through a change.
+       *
+       * @return whether the task ended
+       */
+      private synchronized boolean failed() {
+         if( stale && task != null ) {
+            return false;
+         }
+         task = null;
+         return true;
+      }
+   }
+}
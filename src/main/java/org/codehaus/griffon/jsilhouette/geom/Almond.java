@@ -28,14 +28,7 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines an almond or <i><a href="http://en.wikipedia.org/wiki/Vesica_piscis">Vesica Piscis</a></i> shape.<p>
@@ -46,9 +39,8 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Almond implements Shape, Cloneable, Centered {
+public class Almond extends AbstractShape implements Centered {
    private float angle;
-   private Shape almond;
    private float cx;
    private float cy;
    private float width;
@@ -66,41 +58,17 @@ public class Almond implements Shape, Cloneable, Centered {
       this.cy = cy;
       this.width = width;
       this.angle = ShapeUtils.normalizeAngle( angle );
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Almond( cx, cy, width, angle );
    }
 
-   public boolean contains( double x, double y ) {
-      return almond.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return almond.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return almond.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return almond.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return almond.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return almond.getBounds2D();
-   }
-
    public float getCx() {
       return cx;
    }
@@ -109,60 +77,87 @@ public class Almond implements Shape, Cloneable, Centered {
       return cy;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return almond.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return almond.getPathIterator( at, flatness );
-   }
-
    public float getWidth() {
       return width;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return almond.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return almond.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    public void setWidth( float width ) {
-      if( this.width != width ) {
+      if( changed( "width", this.width != width ) ) {
          this.width = width;
-         calculateShape();
+         recalculate( "width" );
       }
    }
 
-   private void calculateShape() {
-      Shape c1 = new Ellipse2D.Float( cx - width, cy - width * 2, width * 4, width * 4 );
-      almond = new Area( c1 );
-      ((Area) almond)
-            .intersect( new Area( new Ellipse2D.Float( cx - width * 3, cy - width * 2, width * 4, width * 4 ) ) );
-      almond = ShapeUtils.rotate( almond, angle, cx, cy );
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",width=" + width + ",angle=" + angle;
+   }
+
+   protected Shape calculateShape() {
+      return new Lens( cx, cy, width, angle );
+   }
+
+   /**
+    * The overlap of two circles of radius 2 whose centers lie at (-1,0) and (1,0), scaled
+    * by the width. Points are tested against both circles.
+    */
+   private static final class Lens extends AnalyticShape {
+      private static final CompactPath OUTLINE = createOutline();
+
+      private final float cx;
+      private final float cy;
+      private final float width;
+      private final double cos;
+      private final double sin;
+
+      Lens( float cx, float cy, float width, float angle ) {
+         super( place( OUTLINE, cx, cy, width, angle ) );
+         this.cx = cx;
+         this.cy = cy;
+         this.width = width;
+         double theta = Math.toRadians( 360 - angle );
+         this.cos = Math.cos( theta );
+         this.sin = Math.sin( theta );
+      }
+
+      private static CompactPath createOutline() {
+         float tip = (float) Math.sqrt( 3 );
+         CompactPath.Builder path = new CompactPath.Builder( 6, 26 );
+         path.moveTo( 0, -tip );
+         path.arcTo( 1, 0, 2, Math.toRadians( 240 ), Math.toRadians( -120 ) );
+         path.arcTo( -1, 0, 2, Math.toRadians( 60 ), Math.toRadians( -120 ) );
+         path.closePath();
+         return path.toPath();
+      }
+
+      public boolean contains( double x, double y ) {
+         // undo the placement, the circle centered farther from the point decides
+         double dx = x - cx;
+         double dy = y - cy;
+         double u = ((dx * cos) + (dy * sin)) / width;
+         double v = ((dy * cos) - (dx * sin)) / width;
+         return inside( Math.abs( u ), v, -1, 0, 2 );
+      }
    }
 }
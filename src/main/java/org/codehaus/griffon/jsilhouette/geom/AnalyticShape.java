@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Geometry that iterates and bounds a precomputed outline but answers
+ * {@link #contains(double, double)} from the parameters the outline was built from,
+ * such as the circles its arcs belong to. Rectangle tests use the outline unless a
+ * subclass knows better.
+ *
+ * @author Andres Almiray
+ */
+abstract class AnalyticShape implements Shape {
+   protected final Shape outline;
+
+   AnalyticShape( Shape outline ) {
+      this.outline = outline;
+   }
+
+   public abstract boolean contains( double x, double y );
+
+   public boolean contains( Point2D p ) {
+      return contains( p.getX(), p.getY() );
+   }
+
+   public boolean contains( double x, double y, double w, double h ) {
+      return outline.contains( x, y, w, h );
+   }
+
+   public boolean contains( Rectangle2D r ) {
+      return contains( r.getX(), r.getY(), r.getWidth(), r.getHeight() );
+   }
+
+   public boolean intersects( double x, double y, double w, double h ) {
+      return outline.intersects( x, y, w, h );
+   }
+
+   public boolean intersects( Rectangle2D r ) {
+      return intersects( r.getX(), r.getY(), r.getWidth(), r.getHeight() );
+   }
+
+   public Rectangle getBounds() {
+      return outline.getBounds();
+   }
+
+   public Rectangle2D getBounds2D() {
+      return outline.getBounds2D();
+   }
+
+   public PathIterator getPathIterator( AffineTransform at ) {
+      return outline.getPathIterator( at );
+   }
+
+   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
+      return outline.getPathIterator( at, flatness );
+   }
+
+   /**
+    * Returns whether (x,y) lies strictly inside the circle of the given center and radius.
+    */
+   static boolean inside( double x, double y, double cx, double cy, double radius ) {
+      double dx = x - cx;
+      double dy = y - cy;
+      return (dx * dx) + (dy * dy) < radius * radius;
+   }
+}
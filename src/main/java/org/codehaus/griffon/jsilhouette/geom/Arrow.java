@@ -28,14 +28,7 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Area;
-import java.awt.geom.GeneralPath;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines an arrow shape.<p>
@@ -46,7 +39,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Arrow implements Shape, Cloneable, Centered {
+public class Arrow extends AbstractShape implements Centered {
    public static void validateDepth( float depth ) {
       if( depth < 0 || depth > 1 ) {
          throw new IllegalArgumentException( "depth must be inside the range [0..1]" );
@@ -60,7 +53,6 @@ public class Arrow implements Shape, Cloneable, Centered {
    }
 
    private float angle;
-   private Shape arrow;
    private float depth;
    private float height;
    private float rise;
@@ -96,41 +88,17 @@ public class Arrow implements Shape, Cloneable, Centered {
       this.rise = rise;
       this.depth = depth;
       this.angle = ShapeUtils.normalizeAngle( angle );
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Arrow( x, y, width, height, rise, depth, angle );
    }
 
-   public boolean contains( double x, double y ) {
-      return arrow.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return arrow.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return arrow.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return arrow.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return arrow.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return arrow.getBounds2D();
-   }
-
    public float getDepth() {
       return depth;
    }
@@ -139,14 +107,6 @@ public class Arrow implements Shape, Cloneable, Centered {
       return height;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return arrow.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return arrow.getPathIterator( at, flatness );
-   }
-
    public float getRise() {
       return rise;
    }
@@ -163,88 +123,105 @@ public class Arrow implements Shape, Cloneable, Centered {
       return y;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return arrow.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return arrow.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setDepth( float depth ) {
-      if( this.depth != depth ) {
+      if( changed( "depth", this.depth != depth ) ) {
          validateDepth( depth );
          this.depth = depth;
-         calculateShape();
+         recalculate( "depth" );
       }
    }
 
    public void setHeight( float height ) {
-      if( this.height != height ) {
+      if( changed( "height", this.height != height ) ) {
          this.height = height;
-         calculateShape();
+         recalculate( "height" );
       }
    }
 
    public void setRise( float rise ) {
-      if( this.rise != rise ) {
+      if( changed( "rise", this.rise != rise ) ) {
          validateRise( rise );
          this.rise = rise;
-         calculateShape();
+         recalculate( "rise" );
       }
    }
 
    public void setWidth( float width ) {
-      if( this.width != width ) {
+      if( changed( "width", this.width != width ) ) {
          this.width = width;
-         calculateShape();
+         recalculate( "width" );
       }
    }
 
    public void setX( float x ) {
-      if( this.x != x ) {
+      if( changed( "x", this.x != x ) ) {
          this.x = x;
-         calculateShape();
+         recalculate( "x" );
       }
    }
 
    public void setY( float y ) {
-      if( this.y != y ) {
+      if( changed( "y", this.y != y ) ) {
          this.y = y;
-         calculateShape();
+         recalculate( "y" );
       }
    }
 
    public float getCx() {
+      validate();
       return cx;
    }
 
    public float getCy() {
+      validate();
       return cy;
    }
 
-   private void calculateShape() {
+   protected String paramString() {
+      return "x=" + x + ",y=" + y + ",width=" + width + ",height=" + height + ",rise=" + rise + ",depth=" + depth
+            + ",angle=" + angle;
+   }
+
+   protected Shape calculateShape() {
       float d = width * depth;
       float r = height * rise / 2;
-      GeneralPath head = new GeneralPath();
-      head.moveTo( x + d, y );
-      head.lineTo( x + d, y + height );
-      head.lineTo( x + width, y + (height / 2) );
-      head.closePath();
-      arrow = new Area( new Rectangle2D.Float( x, y + (height / 2) - r, d, r * 2 ) );
-      ((Area) arrow).add( new Area( head ) );
-
       cx = x + (width / 2);
       cy = y + (height / 2);
 
-      arrow = ShapeUtils.rotate( arrow, angle, cx, cy );
+      // the shaft and the head share the edge at x + d, trace both as one outline
+      boolean shaft = d > 0 && r > 0;
+      boolean head = d != width && height != 0;
+      CompactPath.Builder arrow = new CompactPath.Builder( 8, 14 );
+      if( shaft ) {
+         arrow.moveTo( x, cy + r );
+         arrow.lineTo( x, cy - r );
+         arrow.lineTo( x + d, cy - r );
+         if( head ) {
+            if( rise < 1 ) {
+               arrow.lineTo( x + d, y );
+            }
+            arrow.lineTo( x + width, cy );
+            if( rise < 1 ) {
+               arrow.lineTo( x + d, y + height );
+            }
+         }
+         arrow.lineTo( x + d, cy + r );
+         arrow.closePath();
+      } else if( head ) {
+         arrow.moveTo( x + d, y );
+         arrow.lineTo( x + width, cy );
+         arrow.lineTo( x + d, y + height );
+         arrow.closePath();
+      }
+
+      return ShapeUtils.rotateCompact( arrow.toPath(), angle, cx, cy );
    }
 }
@@ -28,13 +28,7 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Area;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines an asterisk shape that may have round corners.<p>
@@ -45,7 +39,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Asterisk implements Shape, Cloneable, Centered {
+public class Asterisk extends TemplatedShape implements Centered {
    public static void validateBeams( float beams ) {
       if( beams < 2 ) {
          throw new IllegalArgumentException( "beams can not be less than 2" );
@@ -65,7 +59,6 @@ public class Asterisk implements Shape, Cloneable, Centered {
    }
 
    private float angle;
-   private Shape asterisk;
    private int beams;
    private float cx;
    private float cy;
@@ -104,29 +97,13 @@ public class Asterisk implements Shape, Cloneable, Centered {
       this.angle = ShapeUtils.normalizeAngle( angle );
       this.roundness = roundness;
       this.beams = beams;
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Asterisk( cx, cy, radius, width, beams, angle, roundness );
    }
 
-   public boolean contains( double x, double y ) {
-      return asterisk.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return asterisk.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return asterisk.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return asterisk.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
@@ -135,14 +112,6 @@ public class Asterisk implements Shape, Cloneable, Centered {
       return beams;
    }
 
-   public Rectangle getBounds() {
-      return asterisk.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return asterisk.getBounds2D();
-   }
-
    public float getCx() {
       return cx;
    }
@@ -151,14 +120,6 @@ public class Asterisk implements Shape, Cloneable, Centered {
       return cy;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return asterisk.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return asterisk.getPathIterator( at, flatness );
-   }
-
    public float getRadius() {
       return radius;
    }
@@ -171,80 +132,297 @@ public class Asterisk implements Shape, Cloneable, Centered {
       return width;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return asterisk.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return asterisk.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setBeams( int beams ) {
-      if( this.beams != beams ) {
+      if( changed( "beams", this.beams != beams ) ) {
          validateBeams( beams );
          this.beams = beams;
-         calculateShape();
+         recalculate( "beams" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    public void setRadius( float radius ) {
-      if( this.radius != radius ) {
+      if( changed( "radius", this.radius != radius ) ) {
          this.radius = radius;
-         calculateShape();
+         recalculate( "radius" );
       }
    }
 
    public void setRoundness( float roundness ) {
-      if( this.roundness != roundness ) {
+      if( changed( "roundness", this.roundness != roundness ) ) {
          validateRoundness( roundness );
          this.roundness = roundness;
-         calculateShape();
+         recalculate( "roundness" );
       }
    }
 
+   /**
+    * Checked against 'radius' right away unless an update is in progress.
+    */
    public void setWidth( float width ) {
-      if( this.width != width ) {
-         validateWidth( width, radius );
+      if( changed( "width", this.width != width ) ) {
+         if( !isUpdating() ) {
+            validateWidth( width, radius );
+         }
          this.width = width;
-         calculateShape();
+         recalculate( "width" );
       }
    }
 
-   private void calculateShape() {
-      float t = 360 / beams;
-      float a = angle;
-      a = a > 360 ? a - 360 : a;
-      asterisk = new Area();
+   protected void validateParameters() {
+      validateWidth( width, radius );
+   }
+
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",radius=" + radius + ",width=" + width + ",beams=" + beams + ",angle=" + angle
+            + ",roundness=" + roundness;
+   }
+
+   protected Shape calculateShape() {
+      // the outline only changes with the beams, the roundness and the ratio of width to radius
+      return place( template( beams, width / radius, roundness ), cx, cy, radius, angle );
+   }
+
+   protected Shape calculateTemplate( float[] parameters ) {
+      int beams = (int) parameters[0];
+      float w = parameters[1];
+      float roundness = parameters[2];
+      float t = 360f / beams;
+      float rc = w * roundness;
+      if( beams > 2 && rc < 1 ) {
+         Wedge wedge = new Wedge( w, rc, Math.toRadians( t ) );
+         if( wedge.covers( w ) ) {
+            return calculateOutline( beams, wedge );
+         }
+      }
+
+      // the back corners of the beams stick out of the tips of the others, join them all
+      float a = 0;
+      Shape[] parts = new Shape[beams];
       for( int i = 0; i < beams; i++ ) {
-         Shape beam = new MultiRoundRectangle( cx, cy - width, radius, width * 2, 0, width * roundness, 0, width
-               * roundness );
-         beam = ShapeUtils.rotate( beam, a, cx, cy );
-         ((Area) asterisk).add( new Area( beam ) );
+         Shape beam = new MultiRoundRectangle( 0, -w, 1, w * 2, 0, w * roundness, 0, w * roundness );
+         parts[i] = ShapeUtils.rotateCompact( beam, a, 0, 0 );
 
          a += t;
          a = a > 360 ? a - 360 : a;
       }
+      return union( parts );
+   }
+
+   /**
+    * Walks every beam from the bisector towards the previous one to the bisector towards the
+    * next one, along the beams <tt>wedge</tt> says the rays in between leave the asterisk through.
+    */
+   private static CompactPath calculateOutline( int beams, Wedge wedge ) {
+      double w = wedge.w;
+      double rc = wedge.rc;
+      double gap = wedge.gap;
+      int[] owners = wedge.owners;
+      double[] bounds = wedge.bounds;
+      int last = wedge.size - 1;
+      CompactPath.Builder asterisk = new CompactPath.Builder( (beams * 5 * wedge.size) + 2,
+            (beams * 18 * wedge.size) + 2 );
+      // beam i points at -i*gap, the first one along the x axis
+      double a = -owners[last] * gap;
+      double[] p = boundary( bounds[last + 1] + (owners[last] * gap), w, rc );
+      asterisk.moveTo( (float) ((p[0] * Math.cos( a )) - (p[1] * Math.sin( a ))),
+            (float) ((p[0] * Math.sin( a )) + (p[1] * Math.cos( a ))) );
+      for( int i = 0; i < beams; i++ ) {
+         a = -i * gap;
+         for( int j = last; j >= 0; j-- ) {
+            int o = owners[j];
+            if( j == 0 && o == 0 ) {
+               // the axis goes through the tip of the beam itself, walk both sides at once
+               trace( asterisk, a, w, rc, bounds[1], -bounds[1] );
+            } else {
+               trace( asterisk, a - (o * gap), w, rc, bounds[j + 1] + (o * gap), bounds[j] + (o * gap) );
+            }
+         }
+         // the other side mirrors this one along the axis
+         for( int j = owners[0] == 0 ? 1 : 0; j <= last; j++ ) {
+            int o = owners[j];
+            trace( asterisk, a + (o * gap), w, rc, -bounds[j] - (o * gap), -bounds[j + 1] - (o * gap) );
+         }
+      }
+      asterisk.closePath();
+      return asterisk.toPath();
+   }
+
+   /**
+    * Traces the outline of a beam pointing at <tt>a</tt> from where a ray at <tt>from</tt> to its
+    * axis leaves it to where a ray at <tt>to</tt> does, both inside (-PI/2, PI/2) and positive
+    * angles towards the previous beam. The current point must be where the <tt>from</tt> ray leaves.
+    */
+   private static void trace( CompactPath.Builder asterisk, double a, double w, double rc, double from, double to ) {
+      double cos = Math.cos( a );
+      double sin = Math.sin( a );
+      // the side ends where the corner arc starts, the tip where the arc ends
+      double side = Math.atan2( w, 1 - rc );
+      double tip = Math.atan2( w - rc, 1 );
+      double[] bounds = { Math.PI / 2, side, tip, -tip, -side, -Math.PI / 2 };
+      for( int i = 0; i < bounds.length - 1; i++ ) {
+         double start = Math.min( from, bounds[i] );
+         double end = Math.max( to, bounds[i + 1] );
+         if( start <= end ) {
+            continue;
+         }
+         double[] p = boundary( end, w, rc );
+         if( i == 1 || i == 3 ) {
+            // corner arc, angles around its center
+            double cu = 1 - rc;
+            double cv = i == 1 ? w - rc : rc - w;
+            double[] q = boundary( start, w, rc );
+            double begin = Math.atan2( q[1] - cv, q[0] - cu );
+            asterisk.arcTo( (cu * cos) - (cv * sin), (cu * sin) + (cv * cos), rc, a + begin,
+                  Math.atan2( p[1] - cv, p[0] - cu ) - begin );
+         } else {
+            asterisk.lineTo( (float) ((p[0] * cos) - (p[1] * sin)), (float) ((p[0] * sin) + (p[1] * cos)) );
+         }
+      }
+   }
+
+   /**
+    * Returns where a ray from the center at <tt>angle</tt> to the axis of a beam along the x axis
+    * leaves it, as {x, y}.
+    */
+   private static double[] boundary( double angle, double w, double rc ) {
+      double cos = Math.cos( Math.abs( angle ) );
+      double sin = Math.sin( Math.abs( angle ) );
+      double x;
+      double y;
+      if( sin * (1 - rc) >= w * cos ) {
+         x = w * cos / sin;
+         y = w;
+      } else if( sin >= (w - rc) * cos ) {
+         // farther crossing with the corner arc
+         double cu = 1 - rc;
+         double cv = w - rc;
+         double b = (cu * cos) + (cv * sin);
+         double d = b + Math.sqrt( Math.max( 0, (b * b) - (cu * cu) - (cv * cv) + (rc * rc) ) );
+         x = d * cos;
+         y = d * sin;
+      } else {
+         x = 1;
+         y = sin / cos;
+      }
+      return new double[] { x, angle < 0 ? -y : y };
+   }
+
+   /**
+    * The stretches of beams rays leave an asterisk through, between the axis of a beam and the
+    * bisector towards the previous one, every beam and both sides of its axis look the same.<p>
+    * A ray leaving the center at an angle to the axis of a beam goes through it farthest along the
+    * center of a corner arc. Short of that peak angle rays at larger angles go farther, past it
+    * they go less far, so a ray leaves the asterisk either through the beam farthest from it short
+    * of the peak or through the beam closest to it past the peak. Across the wedge those are two
+    * pairs of beams, each pair hands over where their outlines cross.
+    */
+   private static final class Wedge {
+      private static final int STEPS = 16;
+
+      private final double w;
+      private final double rc;
+      private final double gap;
+      // offsets of the beams from the beam of the wedge, the next ones are positive, a ray at an
+      // angle r from the axis is at r + o * gap from the axis of the beam at offset o
+      private final int[] owners = new int[(STEPS + 1) * 2];
+      // angles from the axis where the beams hand over, ascending
+      private final double[] bounds = new double[owners.length + 1];
+      private int size;
+
+      Wedge( double w, double rc, double gap ) {
+         this.w = w;
+         this.rc = rc;
+         this.gap = gap;
+         double peak = Math.atan2( w - rc, 1 - rc );
+         int k = (int) Math.floor( peak / gap );
+         double f = (peak / gap) - k;
+         // one beam of the farthest pair reaches its peak at s, the pairs change there
+         double s = Math.min( f, 1 - f ) * gap;
+         int farthest = f <= 0.5 ? -k : -(k + 1);
+         add( 0, s, k, -(k + 1) );
+         add( s, gap / 2, farthest, -farthest );
+      }
+
+      /**
+       * Returns whether every ray leaves the asterisk at least <tt>distance</tt> from the center.
+       */
+      boolean covers( double distance ) {
+         for( int i = 0; i < size; i++ ) {
+            if( reach( owners[i], bounds[i] ) < distance || reach( owners[i], bounds[i + 1] ) < distance ) {
+               return false;
+            }
+         }
+         return true;
+      }
+
+      private void add( double from, double to, int first, int second ) {
+         if( to <= from ) {
+            return;
+         }
+         double previous = from;
+         boolean firstLeads = reach( first, from ) >= reach( second, from );
+         for( int i = 1; i <= STEPS; i++ ) {
+            double angle = from + ((to - from) * i / STEPS);
+            if( (reach( first, angle ) >= reach( second, angle )) != firstLeads ) {
+               // bisect the crossing
+               double low = previous;
+               double high = angle;
+               for( int j = 0; j < 52 && low < high; j++ ) {
+                  double middle = (low + high) / 2;
+                  if( (reach( first, middle ) >= reach( second, middle )) == firstLeads ) {
+                     low = middle;
+                  } else {
+                     high = middle;
+                  }
+               }
+               append( firstLeads ? first : second, low );
+               firstLeads = !firstLeads;
+            }
+            previous = angle;
+         }
+         append( firstLeads ? first : second, to );
+      }
+
+      private void append( int owner, double to ) {
+         if( size == 0 || owners[size - 1] != owner ) {
+            owners[size++] = owner;
+         }
+         bounds[size] = to;
+      }
+
+      /**
+       * Returns how far a ray at <tt>angle</tt> from the axis goes through the beam at <tt>offset</tt>,
+       * -1 when it misses the beam.
+       */
+      private double reach( int offset, double angle ) {
+         double a = angle + (offset * gap);
+         if( Math.abs( a ) >= Math.PI / 2 ) {
+            return -1;
+         }
+         double[] p = boundary( a, w, rc );
+         return Math.sqrt( (p[0] * p[0]) + (p[1] * p[1]) );
+      }
    }
 }
@@ -28,14 +28,7 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines an <a href="http://en.wikipedia.org/wiki/Astroid">Astroid</a> shape.<p>
@@ -46,9 +39,8 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Astroid implements Shape, Cloneable, Centered {
+public class Astroid extends AbstractShape implements Centered {
    private float angle;
-   private Shape astroid;
    private float cx;
    private float cy;
    private float radius;
@@ -66,41 +58,17 @@ public class Astroid implements Shape, Cloneable, Centered {
       this.cy = cy;
       this.radius = radius;
       this.angle = ShapeUtils.normalizeAngle( angle );
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Astroid( cx, cy, radius, angle );
    }
 
-   public boolean contains( double x, double y ) {
-      return astroid.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return astroid.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return astroid.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return astroid.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return astroid.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return astroid.getBounds2D();
-   }
-
    public float getCx() {
       return cx;
    }
@@ -109,62 +77,90 @@ public class Astroid implements Shape, Cloneable, Centered {
       return cy;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return astroid.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return astroid.getPathIterator( at, flatness );
-   }
-
    public float getRadius() {
       return radius;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return astroid.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return astroid.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    public void setRadius( float radius ) {
-      if( this.radius != radius ) {
+      if( changed( "radius", this.radius != radius ) ) {
          this.radius = radius;
-         calculateShape();
+         recalculate( "radius" );
       }
    }
 
-   private void calculateShape() {
-      float r2 = radius * 2;
-      astroid = new Area( new Rectangle2D.Float( cx - radius, cy - radius, r2, r2 ) );
-      ((Area) astroid).subtract( new Area( new Ellipse2D.Float( cx - r2, cy - r2, r2, r2 ) ) );
-      ((Area) astroid).subtract( new Area( new Ellipse2D.Float( cx - r2, cy, r2, r2 ) ) );
-      ((Area) astroid).subtract( new Area( new Ellipse2D.Float( cx, cy, r2, r2 ) ) );
-      ((Area) astroid).subtract( new Area( new Ellipse2D.Float( cx, cy - r2, r2, r2 ) ) );
-      astroid = ShapeUtils.rotate( astroid, angle, cx, cy );
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",radius=" + radius + ",angle=" + angle;
+   }
+
+   protected Shape calculateShape() {
+      return new Cusps( cx, cy, radius, angle );
+   }
+
+   /**
+    * The square from (-1,-1) to (1,1) without the circles of radius 1 centered at its
+    * corners, scaled by the radius. What is left lies inside the diamond joining the four
+    * cusps and outside the circle of the nearest corner.
+    */
+   private static final class Cusps extends AnalyticShape {
+      private static final CompactPath OUTLINE = createOutline();
+
+      private final float cx;
+      private final float cy;
+      private final float radius;
+      private final double cos;
+      private final double sin;
+
+      Cusps( float cx, float cy, float radius, float angle ) {
+         super( place( OUTLINE, cx, cy, radius, angle ) );
+         this.cx = cx;
+         this.cy = cy;
+         this.radius = radius;
+         double theta = Math.toRadians( 360 - angle );
+         this.cos = Math.cos( theta );
+         this.sin = Math.sin( theta );
+      }
+
+      private static CompactPath createOutline() {
+         double quarter = Math.PI / 2;
+         CompactPath.Builder path = new CompactPath.Builder( 6, 26 );
+         path.moveTo( 1, 0 );
+         path.arcTo( 1, 1, 1, -quarter, -quarter );
+         path.arcTo( -1, 1, 1, 0, -quarter );
+         path.arcTo( -1, -1, 1, quarter, -quarter );
+         path.arcTo( 1, -1, 1, Math.PI, -quarter );
+         path.closePath();
+         return path.toPath();
+      }
+
+      public boolean contains( double x, double y ) {
+         // undo the placement, then fold the point into the first quadrant
+         double dx = x - cx;
+         double dy = y - cy;
+         double u = Math.abs( ((dx * cos) + (dy * sin)) / radius );
+         double v = Math.abs( ((dy * cos) - (dx * sin)) / radius );
+         return u + v < 1 && !inside( u, v, 1, 1, 1 );
+      }
    }
 }
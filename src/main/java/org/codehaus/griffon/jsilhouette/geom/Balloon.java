@@ -28,13 +28,8 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
 
 /**
@@ -46,7 +41,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Balloon implements Shape, Cloneable {
+public class Balloon extends AbstractShape {
    public static final int ANGLE_AT_END = Triangle.ANGLE_AT_END;
    public static final int ANGLE_AT_START = Triangle.ANGLE_AT_START;
    public static final int NONE = Triangle.NONE;
@@ -56,9 +51,13 @@ public class Balloon implements Shape, Cloneable {
    public static final int TAB_AT_RIGHT = 1;
    public static final int TAB_AT_TOP = 2;
 
+   /**
+    * Distance of the control points of a quarter ellipse, relative to its radius
+    */
+   private static final float CORNER = 0.5522848f;
+
    private int anglePosition = NONE;
    private float arc;
-   private Shape balloon;
    private float height;
    private float tabDisplacement;
    private float tabHeight;
@@ -74,7 +73,6 @@ public class Balloon implements Shape, Cloneable {
 
    public Balloon( float x, float y, float width, float height, float arc, float tabWidth, float tabHeight,
          int tabLocation, float tabDisplacement ) {
-      super();
       this.x = x;
       this.y = y;
       this.width = width;
@@ -84,12 +82,11 @@ public class Balloon implements Shape, Cloneable {
       this.tabHeight = tabHeight;
       this.tabLocation = tabLocation;
       this.tabDisplacement = tabDisplacement;
-      calculatePath();
+      recalculate( null );
    }
 
    public Balloon( float x, float y, float width, float height, float arc, float tabWidth, float tabHeight,
          int tabLocation, float tabDisplacement, int anglePosition ) {
-      super();
       this.x = x;
       this.y = y;
       this.width = width;
@@ -100,29 +97,13 @@ public class Balloon implements Shape, Cloneable {
       this.tabLocation = tabLocation;
       this.tabDisplacement = tabDisplacement;
       this.anglePosition = anglePosition;
-      calculatePath();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Balloon( x, y, width, height, arc, tabWidth, tabHeight, tabLocation, tabDisplacement, anglePosition );
    }
 
-   public boolean contains( double x, double y ) {
-      return balloon.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return balloon.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return balloon.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return balloon.contains( r );
-   }
-
    public int getAnglePosition() {
       return anglePosition;
    }
@@ -131,26 +112,10 @@ public class Balloon implements Shape, Cloneable {
       return arc;
    }
 
-   public Rectangle getBounds() {
-      return balloon.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return balloon.getBounds2D();
-   }
-
    public float getHeight() {
       return height;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return balloon.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return balloon.getPathIterator( at, flatness );
-   }
-
    public float getTabDisplacement() {
       return tabDisplacement;
    }
@@ -179,81 +144,73 @@ public class Balloon implements Shape, Cloneable {
       return y;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return balloon.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return balloon.intersects( r );
-   }
-
    public void setAnglePosition( int anglePosition ) {
-      if( this.anglePosition != anglePosition ) {
+      if( changed( "anglePosition", this.anglePosition != anglePosition ) ) {
          this.anglePosition = anglePosition;
-         calculatePath();
+         recalculate( "anglePosition" );
       }
    }
 
    public void setArc( float arc ) {
-      if( this.arc != arc ) {
+      if( changed( "arc", this.arc != arc ) ) {
          this.arc = arc;
-         calculatePath();
+         recalculate( "arc" );
       }
    }
 
    public void setHeight( float height ) {
-      if( this.height != height ) {
+      if( changed( "height", this.height != height ) ) {
          this.height = height;
-         calculatePath();
+         recalculate( "height" );
       }
    }
 
    public void setTabDisplacement( float tabDisplacement ) {
-      if( this.tabDisplacement != tabDisplacement ) {
+      if( changed( "tabDisplacement", this.tabDisplacement != tabDisplacement ) ) {
          this.tabDisplacement = tabDisplacement;
-         calculatePath();
+         recalculate( "tabDisplacement" );
       }
    }
 
    public void setTabHeight( float tabHeight ) {
-      if( this.tabHeight != tabHeight ) {
+      if( changed( "tabHeight", this.tabHeight != tabHeight ) ) {
          this.tabHeight = tabHeight;
-         calculatePath();
+         recalculate( "tabHeight" );
       }
    }
 
    public void setTabLocation( int tabLocation ) {
-      if( this.tabLocation != tabLocation ) {
+      if( changed( "tabLocation", this.tabLocation != tabLocation ) ) {
          this.tabLocation = tabLocation;
-         calculatePath();
+         recalculate( "tabLocation" );
       }
    }
 
    public void setTabWidth( float tabWidth ) {
-      if( this.tabWidth != tabWidth ) {
+      if( changed( "tabWidth", this.tabWidth != tabWidth ) ) {
          this.tabWidth = tabWidth;
-         calculatePath();
+         recalculate( "tabWidth" );
       }
    }
 
    public void setWidth( float width ) {
-      if( this.width != width ) {
+      if( changed( "width", this.width != width ) ) {
          this.width = width;
-         calculatePath();
+         recalculate( "width" );
       }
    }
 
    public void setX( float x ) {
-      if( this.x != x ) {
+      if( changed( "x", this.x != x ) ) {
          this.x = x;
-         calculatePath();
+         recalculate( "x" );
       }
    }
 
    public void setY( float y ) {
-      if( this.y != y ) {
+      if( changed( "y", this.y != y ) ) {
          this.y = y;
-         calculatePath();
+         recalculate( "y" );
       }
    }
 
@@ -261,50 +218,119 @@ public class Balloon implements Shape, Cloneable {
       return (int) Math.abs( anglePosition - ANGLE_AT_END );
    }
 
-   private void calculatePath() {
-      Shape rectangle = new RoundRectangle2D.Float( x, y, width, height, arc, arc );
-      Triangle triangle = null;
-      AffineTransform at = new AffineTransform();
+   protected String paramString() {
+      return "x=" + x + ",y=" + y + ",width=" + width + ",height=" + height + ",arc=" + arc + ",tabWidth=" + tabWidth
+            + ",tabHeight=" + tabHeight + ",tabLocation=" + tabLocation + ",tabDisplacement=" + tabDisplacement
+            + ",anglePosition=" + anglePosition;
+   }
 
+   protected Shape calculateShape() {
+      // the tab is the triangle Balloon used to rotate into place: its base runs from (tx,ty)
+      // along (ex,ey) and its tip points away from the side holding it
+      int side = tabLocation;
+      float length;
+      float tx;
+      float ty;
+      float ex = 0;
+      float ey = 0;
       switch( tabLocation ) {
          case TAB_AT_RIGHT:
-            if( anglePosition == NONE ) {
-               triangle = new Triangle( 0f, 0f, tabWidth, 270f, tabHeight );
-            } else {
-               triangle = new Triangle( 0f, 0f, tabWidth, 270f, calculateAnglePosition(), tabHeight );
-            }
-            float a = (tabWidth + arc - height) * tabDisplacement;
-            at = AffineTransform.getTranslateInstance( x + width, y + height - tabWidth - (arc / 2) + a );
+            length = height;
+            tx = x + width;
+            ty = y + height - tabWidth - (arc / 2) + ((tabWidth + arc - height) * tabDisplacement);
+            ey = 1;
             break;
          case TAB_AT_LEFT:
-            if( anglePosition == NONE ) {
-               triangle = new Triangle( 0, 0, tabWidth, 90, tabHeight );
-            } else {
-               triangle = new Triangle( 0, 0, tabWidth, 90, calculateAnglePosition(), tabHeight );
-            }
-            float b = (height - arc - tabWidth) * tabDisplacement;
-            at = AffineTransform.getTranslateInstance( x, y + tabWidth + (arc / 2) + b );
+            length = height;
+            tx = x;
+            ty = y + tabWidth + (arc / 2) + ((height - arc - tabWidth) * tabDisplacement);
+            ey = -1;
             break;
          case TAB_AT_TOP:
-            if( anglePosition == NONE ) {
-               triangle = new Triangle( 0, 0, tabWidth, 0, tabHeight );
-            } else {
-               triangle = new Triangle( 0, 0, tabWidth, 0, calculateAnglePosition(), tabHeight );
-            }
-            float c = (tabWidth + arc - width) * tabDisplacement;
-            at = AffineTransform.getTranslateInstance( x + width - tabWidth - (arc / 2) + c, y );
+            length = width;
+            tx = x + width - tabWidth - (arc / 2) + ((tabWidth + arc - width) * tabDisplacement);
+            ty = y;
+            ex = 1;
             break;
          default:
-            if( anglePosition == NONE ) {
-               triangle = new Triangle( 0, 0, tabWidth, 180, tabHeight );
-            } else {
-               triangle = new Triangle( 0, 0, tabWidth, 180, calculateAnglePosition(), tabHeight );
-            }
-            float d = (width - arc - tabWidth) * tabDisplacement;
-            at = AffineTransform.getTranslateInstance( x + tabWidth + (arc / 2) + d, y + height );
+            side = TAB_AT_BOTTOM;
+            length = width;
+            tx = x + tabWidth + (arc / 2) + ((width - arc - tabWidth) * tabDisplacement);
+            ty = y + height;
+            ex = -1;
+      }
+      float th = Math.abs( Float.isNaN( tabHeight ) || Float.isInfinite( tabHeight ) ? (float) (Math.sqrt( 3 ) / 2)
+            * tabWidth : tabHeight );
+      float tip = 0.5f;
+      if( anglePosition != NONE ) {
+         tip = calculateAnglePosition() == ANGLE_AT_END ? 1 : 0;
+      }
+      float bx = tx + (ex * tabWidth);
+      float by = ty + (ey * tabWidth);
+      float px = tx + (ex * tabWidth * tip) + (ey * th);
+      float py = ty + (ey * tabWidth * tip) - (ex * th);
+
+      if( width < 0 || height < 0 || arc < 0 || tabWidth < 0 || tabWidth + arc > length || tabDisplacement < 0
+            || tabDisplacement > 1 ) {
+         // the tab reaches into a corner or beyond the balloon, let Area work out the union
+         CompactPath.Builder triangle = new CompactPath.Builder( 4, 6 );
+         triangle.moveTo( tx, ty );
+         triangle.lineTo( bx, by );
+         triangle.lineTo( px, py );
+         triangle.closePath();
+         Area balloon = new Area( new RoundRectangle2D.Float( x, y, width, height, arc, arc ) );
+         add( balloon, triangle.toPath() );
+         return balloon;
+      }
+
+      // a round rectangle traced counterclockwise from its top left corner, with the tab spliced
+      // into the straight part of its side
+      if( tabWidth == 0 ) {
+         side = -1;
+      }
+      float rx = Math.min( width, arc ) / 2;
+      float ry = Math.min( height, arc ) / 2;
+      float kx = rx * CORNER;
+      float ky = ry * CORNER;
+      float right = x + width;
+      float bottom = y + height;
+      CompactPath.Builder balloon = new CompactPath.Builder( 13, 40 );
+      balloon.moveTo( x, y + ry );
+      if( side == TAB_AT_LEFT ) {
+         tab( balloon, bx, by, px, py, tx, ty );
       }
+      balloon.lineTo( x, bottom - ry );
+      if( arc > 0 ) {
+         balloon.curveTo( x, bottom - ry + ky, x + rx - kx, bottom, x + rx, bottom );
+      }
+      if( side == TAB_AT_BOTTOM ) {
+         tab( balloon, bx, by, px, py, tx, ty );
+      }
+      balloon.lineTo( right - rx, bottom );
+      if( arc > 0 ) {
+         balloon.curveTo( right - rx + kx, bottom, right, bottom - ry + ky, right, bottom - ry );
+      }
+      if( side == TAB_AT_RIGHT ) {
+         tab( balloon, bx, by, px, py, tx, ty );
+      }
+      balloon.lineTo( right, y + ry );
+      if( arc > 0 ) {
+         balloon.curveTo( right, y + ry - ky, right - rx + kx, y, right - rx, y );
+      }
+      if( side == TAB_AT_TOP ) {
+         tab( balloon, bx, by, px, py, tx, ty );
+      }
+      balloon.lineTo( x + rx, y );
+      if( arc > 0 ) {
+         balloon.curveTo( x + rx - kx, y, x, y + ry - ky, x, y + ry );
+      }
+      balloon.closePath();
+      return balloon.toPath();
+   }
 
-      balloon = new Area( rectangle );
-      ((Area) balloon).add( new Area( at.createTransformedShape( triangle ) ) );
+   private static void tab( CompactPath.Builder balloon, float bx, float by, float px, float py, float tx, float ty ) {
+      balloon.lineTo( bx, by );
+      balloon.lineTo( px, py );
+      balloon.lineTo( tx, ty );
    }
 }
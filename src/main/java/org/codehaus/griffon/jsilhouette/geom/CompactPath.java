@@ -0,0 +1,719 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.IllegalPathStateException;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * An immutable path stored in exactly sized arrays: one <tt>byte</tt> per segment type and
+ * the segment coordinates as <tt>float</tt>s, with its bounds computed once.<p>
+ * Unlike {@link java.awt.geom.GeneralPath} there is no spare capacity, and transformed
+ * copies share the segment types of the original. Bounds are tight around curves, as
+ * those of an {@link java.awt.geom.Area}. Paths are built with a {@link Builder}.
+ *
+ * @author Andres Almiray
+ */
+final class CompactPath implements Shape {
+   private static final int[] COORDS = { 2, 2, 4, 6, 0 };
+   // deepest subdivision of a curve before it is handled as a line, as in java.awt.geom
+   private static final int MAX_LEVEL = 52;
+   // subdivision depth used when testing curves against rectangles
+   private static final int MAX_RECT_LEVEL = 16;
+
+   private final float[] coords;
+   private final byte[] types;
+   private final int windingRule;
+   private final float minX;
+   private final float minY;
+   private final float maxX;
+   private final float maxY;
+   private volatile Point2D[] vertices;
+
+   private CompactPath( float[] coords, byte[] types, int windingRule ) {
+      this.coords = coords;
+      this.types = types;
+      this.windingRule = windingRule;
+      if( coords.length == 0 ) {
+         minX = minY = maxX = maxY = 0;
+         return;
+      }
+      float x1 = coords[0];
+      float y1 = coords[1];
+      float x2 = x1;
+      float y2 = y1;
+      float lastX = 0;
+      float lastY = 0;
+      for( int i = 0, c = 0; i < types.length; c += COORDS[types[i]], i++ ) {
+         // curves also reach their extrema, the helpers return NaN when there is none
+         if( types[i] == PathIterator.SEG_QUADTO ) {
+            float x = quadExtremum( lastX, coords[c], coords[c + 2] );
+            float y = quadExtremum( lastY, coords[c + 1], coords[c + 3] );
+            x1 = min( x1, x );
+            x2 = max( x2, x );
+            y1 = min( y1, y );
+            y2 = max( y2, y );
+         } else if( types[i] == PathIterator.SEG_CUBICTO ) {
+            for( int root = 0; root < 2; root++ ) {
+               float x = cubicExtremum( lastX, coords[c], coords[c + 2], coords[c + 4], root );
+               float y = cubicExtremum( lastY, coords[c + 1], coords[c + 3], coords[c + 5], root );
+               x1 = min( x1, x );
+               x2 = max( x2, x );
+               y1 = min( y1, y );
+               y2 = max( y2, y );
+            }
+         }
+         int n = COORDS[types[i]];
+         if( n > 0 ) {
+            lastX = coords[c + n - 2];
+            lastY = coords[c + n - 1];
+            x1 = min( x1, lastX );
+            x2 = max( x2, lastX );
+            y1 = min( y1, lastY );
+            y2 = max( y2, lastY );
+         }
+      }
+      minX = x1;
+      minY = y1;
+      maxX = x2;
+      maxY = y2;
+   }
+
+   /**
+    * Copies the outline of <tt>shape</tt>.
+    */
+   static CompactPath of( Shape shape ) {
+      return of( shape.getPathIterator( null ) );
+   }
+
+   /**
+    * Copies the remaining segments of <tt>iterator</tt>.
+    */
+   static CompactPath of( PathIterator iterator ) {
+      Builder builder = new Builder( iterator.getWindingRule(), 16, 32 );
+      builder.append( iterator, false );
+      return builder.toPath();
+   }
+
+   /**
+    * Returns a transformed copy sharing the segment types of this path.
+    */
+   CompactPath transform( AffineTransform at ) {
+      float[] transformed = new float[coords.length];
+      at.transform( coords, 0, transformed, 0, coords.length / 2 );
+      return new CompactPath( transformed, types, windingRule );
+   }
+
+   /**
+    * Returns the end point of every move and line segment, in order. They are derived on
+    * the first call, later calls return the same array.
+    */
+   Point2D[] getVertices() {
+      Point2D[] vertices = this.vertices;
+      if( vertices == null ) {
+         this.vertices = vertices = deriveVertices();
+      }
+      return vertices;
+   }
+
+   private Point2D[] deriveVertices() {
+      int count = 0;
+      for( int i = 0; i < types.length; i++ ) {
+         if( types[i] == PathIterator.SEG_MOVETO || types[i] == PathIterator.SEG_LINETO ) {
+            count++;
+         }
+      }
+      Point2D[] vertices = new Point2D[count];
+      for( int i = 0, c = 0, v = 0; i < types.length; c += COORDS[types[i]], i++ ) {
+         if( types[i] == PathIterator.SEG_MOVETO || types[i] == PathIterator.SEG_LINETO ) {
+            vertices[v++] = new Point2D.Float( coords[c], coords[c + 1] );
+         }
+      }
+      return vertices;
+   }
+
+   int getSegmentCount() {
+      return types.length;
+   }
+
+   public Rectangle getBounds() {
+      return getBounds2D().getBounds();
+   }
+
+   public Rectangle2D getBounds2D() {
+      return new Rectangle2D.Float( minX, minY, maxX - minX, maxY - minY );
+   }
+
+   public boolean contains( double x, double y ) {
+      if( x < minX || y < minY || x >= maxX || y >= maxY ) {
+         return false;
+      }
+      int mask = windingRule == PathIterator.WIND_NON_ZERO ? -1 : 1;
+      return (crossings( x, y ) & mask) != 0;
+   }
+
+   public boolean contains( Point2D p ) {
+      return contains( p.getX(), p.getY() );
+   }
+
+   public boolean contains( double x, double y, double w, double h ) {
+      if( w <= 0 || h <= 0 || x < minX || y < minY || x + w > maxX || y + h > maxY ) {
+         return false;
+      }
+      return !crossesInterior( x, y, x + w, y + h ) && contains( x + (w / 2), y + (h / 2) );
+   }
+
+   public boolean contains( Rectangle2D r ) {
+      return contains( r.getX(), r.getY(), r.getWidth(), r.getHeight() );
+   }
+
+   public boolean intersects( double x, double y, double w, double h ) {
+      if( w <= 0 || h <= 0 || x >= maxX || y >= maxY || x + w <= minX || y + h <= minY ) {
+         return false;
+      }
+      // without any boundary inside it the rectangle is either fully inside or fully outside
+      return crossesInterior( x, y, x + w, y + h ) || contains( x + (w / 2), y + (h / 2) );
+   }
+
+   public boolean intersects( Rectangle2D r ) {
+      return intersects( r.getX(), r.getY(), r.getWidth(), r.getHeight() );
+   }
+
+   public PathIterator getPathIterator( AffineTransform at ) {
+      return new Iterator( this, at == null || at.isIdentity() ? null : at );
+   }
+
+   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
+      return new FlatteningPathIterator( getPathIterator( at ), flatness );
+   }
+
+   /**
+    * Counts how many times the boundary crosses the ray going from (x,y) towards +x,
+    * upward crossings count +1 and downward ones -1. Open subpaths are closed implicitly.
+    */
+   private int crossings( double x, double y ) {
+      int crossings = 0;
+      double startX = 0;
+      double startY = 0;
+      double lastX = 0;
+      double lastY = 0;
+      for( int i = 0, c = 0; i < types.length; c += COORDS[types[i]], i++ ) {
+         switch( types[i] ) {
+            case PathIterator.SEG_MOVETO:
+               crossings += lineCrossings( x, y, lastX, lastY, startX, startY );
+               startX = lastX = coords[c];
+               startY = lastY = coords[c + 1];
+               break;
+            case PathIterator.SEG_LINETO:
+               crossings += lineCrossings( x, y, lastX, lastY, coords[c], coords[c + 1] );
+               lastX = coords[c];
+               lastY = coords[c + 1];
+               break;
+            case PathIterator.SEG_QUADTO:
+               crossings += quadCrossings( x, y, lastX, lastY, coords[c], coords[c + 1], coords[c + 2],
+                     coords[c + 3], 0 );
+               lastX = coords[c + 2];
+               lastY = coords[c + 3];
+               break;
+            case PathIterator.SEG_CUBICTO:
+               crossings += cubicCrossings( x, y, lastX, lastY, coords[c], coords[c + 1], coords[c + 2],
+                     coords[c + 3], coords[c + 4], coords[c + 5], 0 );
+               lastX = coords[c + 4];
+               lastY = coords[c + 5];
+               break;
+            case PathIterator.SEG_CLOSE:
+               crossings += lineCrossings( x, y, lastX, lastY, startX, startY );
+               lastX = startX;
+               lastY = startY;
+               break;
+         }
+      }
+      return crossings + lineCrossings( x, y, lastX, lastY, startX, startY );
+   }
+
+   private static int lineCrossings( double x, double y, double x0, double y0, double x1, double y1 ) {
+      if( (y < y0 && y < y1) || (y >= y0 && y >= y1) || (x >= x0 && x >= x1) ) {
+         return 0;
+      }
+      if( x >= x0 || x >= x1 ) {
+         double xi = x0 + ((y - y0) * (x1 - x0) / (y1 - y0));
+         if( x >= xi ) {
+            return 0;
+         }
+      }
+      return y0 < y1 ? 1 : -1;
+   }
+
+   private static int chordCrossings( double y, double y0, double y1 ) {
+      if( y0 <= y && y < y1 ) {
+         return 1;
+      }
+      if( y1 <= y && y < y0 ) {
+         return -1;
+      }
+      return 0;
+   }
+
+   private static int quadCrossings( double x, double y, double x0, double y0, double xc, double yc, double x1,
+         double y1, int level ) {
+      if( (y < y0 && y < yc && y < y1) || (y >= y0 && y >= yc && y >= y1) || (x >= x0 && x >= xc && x >= x1) ) {
+         return 0;
+      }
+      if( x < x0 && x < xc && x < x1 ) {
+         return chordCrossings( y, y0, y1 );
+      }
+      if( level >= MAX_LEVEL ) {
+         return lineCrossings( x, y, x0, y0, x1, y1 );
+      }
+      double x0c = (x0 + xc) / 2;
+      double y0c = (y0 + yc) / 2;
+      double xc1 = (xc + x1) / 2;
+      double yc1 = (yc + y1) / 2;
+      double xm = (x0c + xc1) / 2;
+      double ym = (y0c + yc1) / 2;
+      if( Double.isNaN( xm ) || Double.isNaN( ym ) ) {
+         return 0;
+      }
+      return quadCrossings( x, y, x0, y0, x0c, y0c, xm, ym, level + 1 )
+            + quadCrossings( x, y, xm, ym, xc1, yc1, x1, y1, level + 1 );
+   }
+
+   private static int cubicCrossings( double x, double y, double x0, double y0, double xc0, double yc0, double xc1,
+         double yc1, double x1, double y1, int level ) {
+      if( (y < y0 && y < yc0 && y < yc1 && y < y1) || (y >= y0 && y >= yc0 && y >= yc1 && y >= y1)
+            || (x >= x0 && x >= xc0 && x >= xc1 && x >= x1) ) {
+         return 0;
+      }
+      if( x < x0 && x < xc0 && x < xc1 && x < x1 ) {
+         return chordCrossings( y, y0, y1 );
+      }
+      if( level >= MAX_LEVEL ) {
+         return lineCrossings( x, y, x0, y0, x1, y1 );
+      }
+      double xa = (x0 + xc0) / 2;
+      double ya = (y0 + yc0) / 2;
+      double xm = (xc0 + xc1) / 2;
+      double ym = (yc0 + yc1) / 2;
+      double xb = (xc1 + x1) / 2;
+      double yb = (yc1 + y1) / 2;
+      double xam = (xa + xm) / 2;
+      double yam = (ya + ym) / 2;
+      double xmb = (xm + xb) / 2;
+      double ymb = (ym + yb) / 2;
+      double xs = (xam + xmb) / 2;
+      double ys = (yam + ymb) / 2;
+      if( Double.isNaN( xs ) || Double.isNaN( ys ) ) {
+         return 0;
+      }
+      return cubicCrossings( x, y, x0, y0, xa, ya, xam, yam, xs, ys, level + 1 )
+            + cubicCrossings( x, y, xs, ys, xmb, ymb, xb, yb, x1, y1, level + 1 );
+   }
+
+   /**
+    * Returns whether any part of the boundary, implicit closes included, lies strictly
+    * inside the rectangle [x1,x2] x [y1,y2].
+    */
+   private boolean crossesInterior( double x1, double y1, double x2, double y2 ) {
+      double startX = 0;
+      double startY = 0;
+      double lastX = 0;
+      double lastY = 0;
+      for( int i = 0, c = 0; i < types.length; c += COORDS[types[i]], i++ ) {
+         boolean crosses = false;
+         switch( types[i] ) {
+            case PathIterator.SEG_MOVETO:
+               crosses = closeCrossesInterior( lastX, lastY, startX, startY, x1, y1, x2, y2 );
+               startX = lastX = coords[c];
+               startY = lastY = coords[c + 1];
+               break;
+            case PathIterator.SEG_LINETO:
+               crosses = lineCrossesInterior( lastX, lastY, coords[c], coords[c + 1], x1, y1, x2, y2 );
+               lastX = coords[c];
+               lastY = coords[c + 1];
+               break;
+            case PathIterator.SEG_QUADTO:
+               // a quadratic is the cubic with control points two thirds of the way to its control point
+               crosses = cubicCrossesInterior( lastX, lastY, lastX + ((coords[c] - lastX) * 2 / 3), lastY
+                     + ((coords[c + 1] - lastY) * 2 / 3), coords[c + 2] + ((coords[c] - coords[c + 2]) * 2 / 3),
+                     coords[c + 3] + ((coords[c + 1] - coords[c + 3]) * 2 / 3), coords[c + 2], coords[c + 3], x1,
+                     y1, x2, y2, 0 );
+               lastX = coords[c + 2];
+               lastY = coords[c + 3];
+               break;
+            case PathIterator.SEG_CUBICTO:
+               crosses = cubicCrossesInterior( lastX, lastY, coords[c], coords[c + 1], coords[c + 2],
+                     coords[c + 3], coords[c + 4], coords[c + 5], x1, y1, x2, y2, 0 );
+               lastX = coords[c + 4];
+               lastY = coords[c + 5];
+               break;
+            case PathIterator.SEG_CLOSE:
+               crosses = closeCrossesInterior( lastX, lastY, startX, startY, x1, y1, x2, y2 );
+               lastX = startX;
+               lastY = startY;
+               break;
+         }
+         if( crosses ) {
+            return true;
+         }
+      }
+      return closeCrossesInterior( lastX, lastY, startX, startY, x1, y1, x2, y2 );
+   }
+
+   private static boolean closeCrossesInterior( double ax, double ay, double bx, double by, double x1, double y1,
+         double x2, double y2 ) {
+      // a subpath that ends where it started needs no closing segment
+      return (ax != bx || ay != by) && lineCrossesInterior( ax, ay, bx, by, x1, y1, x2, y2 );
+   }
+
+   private static boolean lineCrossesInterior( double ax, double ay, double bx, double by, double x1, double y1,
+         double x2, double y2 ) {
+      // clip the segment to the closed rectangle, the middle of what remains is inside the
+      // open rectangle unless the segment only touches its border
+      double t0 = 0;
+      double t1 = 1;
+      double dx = bx - ax;
+      double dy = by - ay;
+      double[] p = { -dx, dx, -dy, dy };
+      double[] q = { ax - x1, x2 - ax, ay - y1, y2 - ay };
+      for( int i = 0; i < 4; i++ ) {
+         if( p[i] == 0 ) {
+            if( q[i] < 0 ) {
+               return false;
+            }
+         } else {
+            double t = q[i] / p[i];
+            if( p[i] < 0 ) {
+               if( t > t1 ) return false;
+               if( t > t0 ) t0 = t;
+            } else {
+               if( t < t0 ) return false;
+               if( t < t1 ) t1 = t;
+            }
+         }
+      }
+      double t = (t0 + t1) / 2;
+      double mx = ax + (dx * t);
+      double my = ay + (dy * t);
+      return mx > x1 && mx < x2 && my > y1 && my < y2;
+   }
+
+   private static boolean cubicCrossesInterior( double x0, double y0, double xc0, double yc0, double xc1,
+         double yc1, double xe, double ye, double x1, double y1, double x2, double y2, int level ) {
+      double minX = Math.min( Math.min( x0, xc0 ), Math.min( xc1, xe ) );
+      double maxX = Math.max( Math.max( x0, xc0 ), Math.max( xc1, xe ) );
+      double minY = Math.min( Math.min( y0, yc0 ), Math.min( yc1, ye ) );
+      double maxY = Math.max( Math.max( y0, yc0 ), Math.max( yc1, ye ) );
+      if( maxX <= x1 || minX >= x2 || maxY <= y1 || minY >= y2 ) {
+         return false;
+      }
+      if( (x0 > x1 && x0 < x2 && y0 > y1 && y0 < y2) || (xe > x1 && xe < x2 && ye > y1 && ye < y2) ) {
+         return true;
+      }
+      if( level >= MAX_RECT_LEVEL ) {
+         return lineCrossesInterior( x0, y0, xe, ye, x1, y1, x2, y2 );
+      }
+      double xa = (x0 + xc0) / 2;
+      double ya = (y0 + yc0) / 2;
+      double xm = (xc0 + xc1) / 2;
+      double ym = (yc0 + yc1) / 2;
+      double xb = (xc1 + xe) / 2;
+      double yb = (yc1 + ye) / 2;
+      double xam = (xa + xm) / 2;
+      double yam = (ya + ym) / 2;
+      double xmb = (xm + xb) / 2;
+      double ymb = (ym + yb) / 2;
+      double xs = (xam + xmb) / 2;
+      double ys = (yam + ymb) / 2;
+      return cubicCrossesInterior( x0, y0, xa, ya, xam, yam, xs, ys, x1, y1, x2, y2, level + 1 )
+            || cubicCrossesInterior( xs, ys, xmb, ymb, xb, yb, xe, ye, x1, y1, x2, y2, level + 1 );
+   }
+
+   // unlike Math.min/max these ignore a NaN b
+   private static float min( float a, float b ) {
+      return b < a ? b : a;
+   }
+
+   private static float max( float a, float b ) {
+      return b > a ? b : a;
+   }
+
+   private static float quadExtremum( double p0, double p1, double p2 ) {
+      // the only extremum inside the curve is where its derivative is zero
+      double d = p0 - (2 * p1) + p2;
+      return d != 0 ? quadAt( p0, p1, p2, (p0 - p1) / d ) : Float.NaN;
+   }
+
+   private static float quadAt( double p0, double p1, double p2, double t ) {
+      if( t > 0 && t < 1 ) {
+         double u = 1 - t;
+         return (float) ((u * u * p0) + (2 * t * u * p1) + (t * t * p2));
+      }
+      return Float.NaN;
+   }
+
+   private static float cubicExtremum( double p0, double p1, double p2, double p3, int root ) {
+      // the derivative divided by 3 is a t^2 + b t + c
+      double a = -p0 + (3 * p1) - (3 * p2) + p3;
+      double b = 2 * (p0 - (2 * p1) + p2);
+      double c = p1 - p0;
+      if( Math.abs( a ) < 1e-12 ) {
+         return root == 0 && b != 0 ? cubicAt( p0, p1, p2, p3, -c / b ) : Float.NaN;
+      }
+      double discriminant = (b * b) - (4 * a * c);
+      if( discriminant < 0 ) {
+         return Float.NaN;
+      }
+      double sqrt = Math.sqrt( discriminant );
+      return cubicAt( p0, p1, p2, p3, (-b + (root == 0 ? sqrt : -sqrt)) / (2 * a) );
+   }
+
+   private static float cubicAt( double p0, double p1, double p2, double p3, double t ) {
+      if( t > 0 && t < 1 ) {
+         double u = 1 - t;
+         return (float) ((u * u * u * p0) + (3 * t * u * u * p1) + (3 * t * t * u * p2) + (t * t * t * p3));
+      }
+      return Float.NaN;
+   }
+
+   private static final class Iterator implements PathIterator {
+      private final CompactPath path;
+      private final AffineTransform at;
+      private int type;
+      private int coord;
+
+      Iterator( CompactPath path, AffineTransform at ) {
+         this.path = path;
+         this.at = at;
+      }
+
+      public int getWindingRule() {
+         return path.windingRule;
+      }
+
+      public boolean isDone() {
+         return type >= path.types.length;
+      }
+
+      public void next() {
+         coord += COORDS[path.types[type++]];
+      }
+
+      public int currentSegment( float[] coords ) {
+         int t = path.types[type];
+         int n = COORDS[t];
+         if( at == null ) {
+            System.arraycopy( path.coords, coord, coords, 0, n );
+         } else {
+            at.transform( path.coords, coord, coords, 0, n / 2 );
+         }
+         return t;
+      }
+
+      public int currentSegment( double[] coords ) {
+         int t = path.types[type];
+         int n = COORDS[t];
+         if( at == null ) {
+            for( int i = 0; i < n; i++ ) {
+               coords[i] = path.coords[coord + i];
+            }
+         } else {
+            at.transform( path.coords, coord, coords, 0, n / 2 );
+         }
+         return t;
+      }
+   }
+
+   /**
+    * Collects segments like {@link java.awt.geom.GeneralPath} does and hands them over
+    * as a {@link CompactPath} trimmed to size.
+    */
+   static final class Builder {
+      private final int windingRule;
+      private byte[] types;
+      private float[] coords;
+      private int typeCount;
+      private int coordCount;
+
+      Builder( int segments, int coords ) {
+         this( PathIterator.WIND_NON_ZERO, segments, coords );
+      }
+
+      Builder( int windingRule, int segments, int coords ) {
+         this.windingRule = windingRule;
+         this.types = new byte[Math.max( segments, 1 )];
+         this.coords = new float[Math.max( coords, 2 )];
+      }
+
+      void moveTo( float x, float y ) {
+         if( typeCount > 0 && types[typeCount - 1] == PathIterator.SEG_MOVETO ) {
+            coords[coordCount - 2] = x;
+            coords[coordCount - 1] = y;
+            return;
+         }
+         add( PathIterator.SEG_MOVETO );
+         coords[coordCount++] = x;
+         coords[coordCount++] = y;
+      }
+
+      void lineTo( float x, float y ) {
+         checkMoveTo();
+         add( PathIterator.SEG_LINETO );
+         coords[coordCount++] = x;
+         coords[coordCount++] = y;
+      }
+
+      void quadTo( float x1, float y1, float x2, float y2 ) {
+         checkMoveTo();
+         add( PathIterator.SEG_QUADTO );
+         coords[coordCount++] = x1;
+         coords[coordCount++] = y1;
+         coords[coordCount++] = x2;
+         coords[coordCount++] = y2;
+      }
+
+      void curveTo( float x1, float y1, float x2, float y2, float x3, float y3 ) {
+         checkMoveTo();
+         add( PathIterator.SEG_CUBICTO );
+         coords[coordCount++] = x1;
+         coords[coordCount++] = y1;
+         coords[coordCount++] = x2;
+         coords[coordCount++] = y2;
+         coords[coordCount++] = x3;
+         coords[coordCount++] = y3;
+      }
+
+      /**
+       * Appends a circular arc as cubic curves of at most 90 degrees each. The current point
+       * must be the start of the arc. Angles are in radians and grow clockwise on screen,
+       * that is a point of the arc is (cx + radius * cos(a), cy + radius * sin(a)).
+       */
+      void arcTo( double cx, double cy, double radius, double start, double extent ) {
+         int segments = Math.max( 1, (int) Math.ceil( (Math.abs( extent ) / (Math.PI / 2)) - 1e-9 ) );
+         double step = extent / segments;
+         // distance of the control points along the tangents
+         double k = radius * 4 / 3 * Math.tan( step / 4 );
+         double cos = Math.cos( start );
+         double sin = Math.sin( start );
+         for( int i = 1; i <= segments; i++ ) {
+            double a = start + (step * i);
+            double nextCos = Math.cos( a );
+            double nextSin = Math.sin( a );
+            curveTo( (float) (cx + (radius * cos) - (k * sin)), (float) (cy + (radius * sin) + (k * cos)),
+                  (float) (cx + (radius * nextCos) + (k * nextSin)), (float) (cy + (radius * nextSin) - (k * nextCos)),
+                  (float) (cx + (radius * nextCos)), (float) (cy + (radius * nextSin)) );
+            cos = nextCos;
+            sin = nextSin;
+         }
+      }
+
+      void closePath() {
+         if( typeCount == 0 || types[typeCount - 1] != PathIterator.SEG_CLOSE ) {
+            add( PathIterator.SEG_CLOSE );
+         }
+      }
+
+      /**
+       * Appends the outline of <tt>shape</tt>, with <tt>connect</tt> its first move
+       * becomes a line from the current point.
+       */
+      void append( Shape shape, boolean connect ) {
+         append( shape.getPathIterator( null ), connect );
+      }
+
+      void append( PathIterator iterator, boolean connect ) {
+         float[] c = new float[6];
+         while( !iterator.isDone() ) {
+            switch( iterator.currentSegment( c ) ) {
+               case PathIterator.SEG_MOVETO:
+                  if( !connect || typeCount == 0 ) {
+                     moveTo( c[0], c[1] );
+                  } else if( types[typeCount - 1] == PathIterator.SEG_CLOSE || coords[coordCount - 2] != c[0]
+                        || coords[coordCount - 1] != c[1] ) {
+                     lineTo( c[0], c[1] );
+                  }
+                  break;
+               case PathIterator.SEG_LINETO:
+                  lineTo( c[0], c[1] );
+                  break;
+               case PathIterator.SEG_QUADTO:
+                  quadTo( c[0], c[1], c[2], c[3] );
+                  break;
+               case PathIterator.SEG_CUBICTO:
+                  curveTo( c[0], c[1], c[2], c[3], c[4], c[5] );
+                  break;
+               case PathIterator.SEG_CLOSE:
+                  closePath();
+                  break;
+            }
+            connect = false;
+            iterator.next();
+         }
+      }
+
+      CompactPath toPath() {
+         byte[] t = types;
+         if( t.length != typeCount ) {
+            t = new byte[typeCount];
+            System.arraycopy( types, 0, t, 0, typeCount );
+         }
+         float[] c = coords;
+         if( c.length != coordCount ) {
+            c = new float[coordCount];
+            System.arraycopy( coords, 0, c, 0, coordCount );
+         }
+         return new CompactPath( c, t, windingRule );
+      }
+
+      private void checkMoveTo() {
+         if( typeCount == 0 ) {
+            throw new IllegalPathStateException( "missing initial moveto in path definition" );
+         }
+      }
+
+      private void add( int type ) {
+         if( typeCount == types.length ) {
+            byte[] grown = new byte[types.length * 2];
+            System.arraycopy( types, 0, grown, 0, typeCount );
+            types = grown;
+         }
+         if( coordCount + COORDS[type] > coords.length ) {
+            float[] grown = new float[Math.max( coords.length * 2, coordCount + 6 )];
+            System.arraycopy( coords, 0, grown, 0, coordCount );
+            coords = grown;
+         }
+         types[typeCount++] = (byte) type;
+      }
+   }
+}
@@ -28,14 +28,7 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Area;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
-import java.awt.geom.RoundRectangle2D;
 
 /**
  * Defines a cross shape that may have round corners.<p>
@@ -46,7 +39,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Cross implements Shape, Cloneable, Centered {
+public class Cross extends AbstractShape implements Centered {
    public static void validateRoundness( float roundness ) {
       if( roundness < 0 || roundness > 1 ) {
          throw new IllegalArgumentException( "roundness must be inside the range [0..1]" );
@@ -60,7 +53,6 @@ public class Cross implements Shape, Cloneable, Centered {
    }
 
    private float angle;
-   private Shape cross;
    private float cx;
    private float cy;
    private float radius;
@@ -88,41 +80,17 @@ public class Cross implements Shape, Cloneable, Centered {
       this.width = width;
       this.angle = ShapeUtils.normalizeAngle( angle );
       this.roundness = roundness;
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Cross( cx, cy, radius, width, angle, roundness );
    }
 
-   public boolean contains( double x, double y ) {
-      return cross.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return cross.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return cross.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return cross.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return cross.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return cross.getBounds2D();
-   }
-
    public float getCx() {
       return cx;
    }
@@ -131,14 +99,6 @@ public class Cross implements Shape, Cloneable, Centered {
       return cy;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return cross.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return cross.getPathIterator( at, flatness );
-   }
-
    public float getRadius() {
       return radius;
    }
@@ -151,65 +111,111 @@ public class Cross implements Shape, Cloneable, Centered {
       return width;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return cross.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return cross.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    public void setRadius( float radius ) {
-      if( this.radius != radius ) {
+      if( changed( "radius", this.radius != radius ) ) {
          this.radius = radius;
-         calculateShape();
+         recalculate( "radius" );
       }
    }
 
    public void setRoundness( float roundness ) {
-      if( this.roundness != roundness ) {
+      if( changed( "roundness", this.roundness != roundness ) ) {
          validateRoundness( roundness );
          this.roundness = roundness;
-         calculateShape();
+         recalculate( "roundness" );
       }
    }
 
+   /**
+    * Checked against 'radius' right away unless an update is in progress.
+    */
    public void setWidth( float width ) {
-      if( this.width != width ) {
-         validateWidth( width, radius );
+      if( changed( "width", this.width != width ) ) {
+         if( !isUpdating() ) {
+            validateWidth( width, radius );
+         }
          this.width = width;
-         calculateShape();
+         recalculate( "width" );
       }
    }
 
-   private void calculateShape() {
-      float arcwh = width * roundness;
-      Shape beam1 = new RoundRectangle2D.Float( cx - radius, cy - (width / 2), radius * 2, width, arcwh, arcwh );
-      Shape beam2 = new RoundRectangle2D.Float( cx - (width / 2), cy - radius, width, radius * 2, arcwh, arcwh );
-      cross = new Area( beam1 );
-      ((Area) cross).add( new Area( beam2 ) );
-      cross = ShapeUtils.rotate( cross, angle, cx, cy );
+   protected void validateParameters() {
+      validateWidth( width, radius );
+   }
+
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",radius=" + radius + ",width=" + width + ",angle=" + angle + ",roundness="
+            + roundness;
+   }
+
+   protected Shape calculateShape() {
+      // traced on a cross of radius 1 whose beams are 2h wide and have corners of radius rc, right
+      // in place: transforming a cached template would cost as much as these few segments
+      double h = width / radius / 2;
+      double rc = h * roundness;
+      double phi = -Math.PI / 2;
+      boolean inner = 1 - rc > h;
+      if( !inner && rc > 0 ) {
+         // the corners of adjacent beams meet on the diagonal, before the inner corner
+         phi = Math.asin( (h - 1) / rc / Math.sqrt( 2 ) ) - (Math.PI / 4);
+      }
+      double t = Math.toRadians( 360 - angle );
+      double cos = Math.cos( t );
+      double sin = Math.sin( t );
+      CompactPath.Builder cross = new CompactPath.Builder( 22, 74 );
+      cross.moveTo( x( 1, h - rc, cos, sin ), y( 1, h - rc, cos, sin ) );
+      for( int i = 0; i < 4; i++ ) {
+         // the end of a beam and the corner towards the next one, a quarter turn further each time
+         if( rc < h ) {
+            cross.lineTo( x( 1, rc - h, cos, sin ), y( 1, rc - h, cos, sin ) );
+         }
+         if( rc > 0 ) {
+            cross.arcTo( x( 1 - rc, rc - h, cos, sin ), y( 1 - rc, rc - h, cos, sin ), radius * rc, t, phi );
+         }
+         if( inner ) {
+            cross.lineTo( x( h, -h, cos, sin ), y( h, -h, cos, sin ) );
+            cross.lineTo( x( h, rc - 1, cos, sin ), y( h, rc - 1, cos, sin ) );
+         }
+         if( rc > 0 ) {
+            cross.arcTo( x( h - rc, rc - 1, cos, sin ), y( h - rc, rc - 1, cos, sin ), radius * rc,
+                  t - (Math.PI / 2) - phi, phi );
+         }
+         double c = cos;
+         cos = sin;
+         sin = -c;
+         t -= Math.PI / 2;
+      }
+      cross.closePath();
+      return cross.toPath();
+   }
+
+   private float x( double u, double v, double cos, double sin ) {
+      return (float) (cx + (radius * ((u * cos) - (v * sin))));
+   }
+
+   private float y( double u, double v, double cos, double sin ) {
+      return (float) (cy + (radius * ((u * sin) + (v * cos))));
    }
 }
@@ -28,14 +28,8 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
-import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines a donut shape based on circles or regular polygons.<p>
@@ -46,7 +40,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Donut implements Shape, Cloneable, Centered {
+public class Donut extends AbstractShape implements Centered {
    public static void validateRadii( float ir, float or ) {
       if( ir >= or ) {
          throw new IllegalArgumentException( "'ir' can not be equal greater than 'or' [ir=" + ir + ", or=" + or + "]" );
@@ -59,10 +53,8 @@ public class Donut implements Shape, Cloneable, Centered {
    private float angle;
    private float cx;
    private float cy;
-   private Shape donut;
    private float ir;
    private float or;
-   private Point2D[] points;
    private int sides;
 
    /**
@@ -134,41 +126,17 @@ public class Donut implements Shape, Cloneable, Centered {
       this.ir = ir;
       this.sides = sides;
       this.angle = ShapeUtils.normalizeAngle( angle );
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Donut( cx, cy, or, ir, sides, angle );
    }
 
-   public boolean contains( double x, double y ) {
-      return donut.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return donut.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return donut.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return donut.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return donut.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return donut.getBounds2D();
-   }
-
    public float getCx() {
       return cx;
    }
@@ -185,16 +153,11 @@ public class Donut implements Shape, Cloneable, Centered {
       return or;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return donut.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return donut.getPathIterator( at, flatness );
-   }
-
+   /**
+    * Donuts have no vertices, always returns null.
+    */
    public Point2D[] getPoints() {
-      return points;
+      return null;
    }
 
    public float getRadius() {
@@ -205,75 +168,68 @@ public class Donut implements Shape, Cloneable, Centered {
       return sides;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return donut.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return donut.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    /**
-    * WARNING: change the value of 'or' before calling this method.
+    * Checked against 'or' right away unless an update is in progress.
     */
    public void setIr( float ir ) {
-      if( this.ir != ir ) {
-         validateRadii( ir, or );
+      if( changed( "ir", this.ir != ir ) ) {
+         if( !isUpdating() ) {
+            validateRadii( ir, or );
+         }
          this.ir = ir;
-         calculateShape();
+         recalculate( "ir" );
       }
    }
 
    public void setOr( float or ) {
-      if( this.or != or ) {
-         validateRadii( ir, or );
+      if( changed( "or", this.or != or ) ) {
+         if( !isUpdating() ) {
+            validateRadii( ir, or );
+         }
          this.or = or;
-         calculateShape();
+         recalculate( "or" );
       }
    }
 
    public void setSides( int sides ) {
-      if( this.sides != sides ) {
+      if( changed( "sides", this.sides != sides ) ) {
          this.sides = sides;
-         calculateShape();
+         recalculate( "sides" );
       }
    }
 
-   private void calculateShape() {
-      Shape innerShape = null;
-      Shape outerShape = null;
+   protected void validateParameters() {
+      validateRadii( ir, or );
+   }
 
-      if( sides > 2 ) {
-         outerShape = new RegularPolygon( cx, cy, or, sides, angle );
-         innerShape = new RegularPolygon( cx, cy, ir, sides, angle );
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",or=" + or + ",ir=" + ir + ",sides=" + sides + ",angle=" + angle;
+   }
 
-      } else {
-         outerShape = new Ellipse2D.Double( (cx - or), (cy - or), (or * 2), (or * 2) );
-         innerShape = new Ellipse2D.Double( (cx - ir), (cy - ir), (ir * 2), (ir * 2) );
-      }
-      donut = new Area( outerShape );
-      ((Area) donut).subtract( new Area( innerShape ) );
+   protected Shape calculateShape() {
+      // both outlines go into one even-odd path, the inner one leaves the hole
+      return new Ring( cx, cy, or, ir, sides, angle );
    }
 }
@@ -28,14 +28,10 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
-import java.awt.geom.RoundRectangle2D;
 
 /**
  * Defines a fan shape whose blades can vary in shape.<p>
@@ -46,7 +42,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Fan implements Shape, Cloneable, Centered {
+public class Fan extends AbstractShape implements Centered {
    public static void validateBladeCx( float bladeCx ) {
       if( bladeCx < 0 || bladeCx > 1 ) {
          throw new IllegalArgumentException( "bladeCx must be inside the range [0..1]" );
@@ -60,12 +56,19 @@ public class Fan implements Shape, Cloneable, Centered {
    }
 
    private float angle;
-   private Shape fan;
    private Shape blade;
    private int blades;
    private float cx;
    private float cy;
    private float bladeCx;
+   private CompactPath base;
+   private Shape baseBlade;
+   private int baseBlades;
+   private float baseBladeCx;
+   private int baseBladeVersion;
+   private int bladeVersion;
+   private CompactPath normalizedBlade;
+   private float pivot;
 
    public Fan() {
       this( 10, 10, new Rectangle2D.Float(0,0,4,8), 2, 0f, 0.5f );
@@ -96,29 +99,13 @@ public class Fan implements Shape, Cloneable, Centered {
       this.angle = ShapeUtils.normalizeAngle( angle );
       this.bladeCx = bladeCx;
       this.blades = blades;
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Fan( cx, cy, blade, blades, angle, bladeCx );
    }
 
-   public boolean contains( double x, double y ) {
-      return fan.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return fan.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return fan.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return fan.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
@@ -131,14 +118,6 @@ public class Fan implements Shape, Cloneable, Centered {
       return blades;
    }
 
-   public Rectangle getBounds() {
-      return fan.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return fan.getBounds2D();
-   }
-
    public float getCx() {
       return cx;
    }
@@ -147,68 +126,52 @@ public class Fan implements Shape, Cloneable, Centered {
       return cy;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return fan.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return fan.getPathIterator( at, flatness );
-   }
-
    public float getBladeCx() {
       return bladeCx;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return fan.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return fan.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setBlade( Shape blade ) {
-      if( this.blade != blade ) {
+      if( changed( "blade", this.blade != blade ) ) {
          this.blade = blade;
-         calculateShape();
+         recalculate( "blade" );
       }
    }
 
    public void setBlades( int blades ) {
-      if( this.blades != blades ) {
+      if( changed( "blades", this.blades != blades ) ) {
          validateBlades( blades );
          this.blades = blades;
-         calculateShape();
+         recalculate( "blades" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    public void setBladeCx( float bladeCx ) {
-      if( this.bladeCx != bladeCx ) {
+      if( changed( "bladeCx", this.bladeCx != bladeCx ) ) {
          validateBladeCx( bladeCx );
          this.bladeCx = bladeCx;
-         calculateShape();
+         recalculate( "bladeCx" );
       }
    }
 
@@ -220,25 +183,63 @@ public class Fan implements Shape, Cloneable, Centered {
     * shapes are not guaranteed to be observable.
     */
    public void updateBlades() {
-      calculateShape();
+      bladeVersion++;
+      recalculate( "blade" );
+   }
+
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",blades=" + blades + ",angle=" + angle + ",bladeCx=" + bladeCx + ",blade="
+            + blade;
+   }
+
+   protected Shape calculateShape() {
+      // the blades are laid out around the origin once, moves and rotations transform that layout,
+      // the layout is read once as setters of an asynchronous fan may change it meanwhile
+      Shape blade = this.blade;
+      int blades = this.blades;
+      float bladeCx = this.bladeCx;
+      int bladeVersion = this.bladeVersion;
+      if( base == null || baseBlade != blade || baseBlades != blades || baseBladeCx != bladeCx
+            || baseBladeVersion != bladeVersion ) {
+         if( normalizedBlade == null || baseBlade != blade || baseBladeVersion != bladeVersion ) {
+            normalizedBlade = normalizeBlade( blade );
+         }
+         base = CompactPath.of( calculateBase( blades, bladeCx ) );
+         baseBlade = blade;
+         baseBlades = blades;
+         baseBladeCx = bladeCx;
+         baseBladeVersion = bladeVersion;
+      }
+      AffineTransform at = AffineTransform.getTranslateInstance( cx, cy );
+      if( angle != 0 ) {
+         at.rotate( Math.toRadians( 360 - angle ), pivot, 0 );
+      }
+      return base.transform( at );
+   }
+
+   /**
+    * Returns the outline of the blade with its bounds centered on the y axis and its top at
+    * the origin, shared by every copy until the blade changes.
+    */
+   private CompactPath normalizeBlade( Shape blade ) {
+      Area b = new Area( blade );
+      Rectangle2D bounds = b.getBounds2D();
+      return CompactPath.of( b.getPathIterator( AffineTransform.getTranslateInstance( -bounds.getX()
+            - (bounds.getWidth() / 2), -bounds.getY() ) ) );
    }
 
-   private void calculateShape() {
+   private Area calculateBase( int blades, float bladeCx ) {
       float t = 360 / blades;
-      float a = angle;
-      a = a > 360 ? a - 360 : a;
-      fan = new Area();
+      float a = 0;
+      Rectangle2D bounds = normalizedBlade.getBounds2D();
+      pivot = (float) ((bounds.getWidth() * bladeCx) + bounds.getX());
+      Shape[] copies = new Shape[blades];
       for( int i = 0; i < blades; i++ ) {
-         Shape b = new Area(blade);
-         Rectangle2D bounds = b.getBounds2D();
-         b = AffineTransform.getTranslateInstance( cx - bounds.getX() - bounds.getWidth()/2, cy - bounds.getY() ).createTransformedShape(b);
-         bounds = b.getBounds2D();
-         float bcx = (float) ((bounds.getWidth() * bladeCx) + bounds.getX());
-         b = ShapeUtils.rotate( b, a, bcx, cy );
-         ((Area) fan).add( new Area(b) );
+         copies[i] = ShapeUtils.rotateCompact( normalizedBlade, a, pivot, 0 );
 
          a += t;
          a = a > 360 ? a - 360 : a;
       }
+      return union( copies );
    }
 }
@@ -28,15 +28,7 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.Arc2D;
-import java.awt.geom.Area;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Ellipse2D;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines a <a href="http://en.wikipedia.org/wiki/Lauburu">Lauburu</a> shape.<p>
@@ -47,11 +39,13 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Lauburu implements Shape, Cloneable, Centered {
+public class Lauburu extends AbstractShape implements Centered {
+   private static final double OVERLAP = 0.01;
+   private static final CompactPath OUTLINE = createOutline();
+
    private float angle;
    private float cx;
    private float cy;
-   private Shape lauburu;
    private float radius;
 
    public Lauburu() {
@@ -67,41 +61,17 @@ public class Lauburu implements Shape, Cloneable, Centered {
       this.cy = cy;
       this.radius = radius;
       this.angle = ShapeUtils.normalizeAngle( angle );
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Lauburu( cx, cy, radius, angle );
    }
 
-   public boolean contains( double x, double y ) {
-      return lauburu.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return lauburu.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return lauburu.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return lauburu.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return lauburu.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return lauburu.getBounds2D();
-   }
-
    public float getCx() {
       return cx;
    }
@@ -110,72 +80,71 @@ public class Lauburu implements Shape, Cloneable, Centered {
       return cy;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return lauburu.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return lauburu.getPathIterator( at, flatness );
-   }
-
    public float getRadius() {
       return radius;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return lauburu.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return lauburu.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    public void setRadius( float radius ) {
-      if( this.radius != radius ) {
+      if( changed( "radius", this.radius != radius ) ) {
          this.radius = radius;
-         calculateShape();
+         recalculate( "radius" );
       }
    }
 
-   private void calculateShape() {
-      // terrible hack to avoid OOM when cx = 0 & cy = 0
-      if( cx == 0f ) cx = 0.0001f;
-      if( cy == 0f ) cy = 0.0001f;
-      Area l = createArm();
-      l.add(createArm().createTransformedArea(AffineTransform.getRotateInstance(Math.toRadians(  90 ), cx, cy)));
-      l.add(createArm().createTransformedArea(AffineTransform.getRotateInstance(Math.toRadians( 180 ), cx, cy)));
-      l.add(createArm().createTransformedArea(AffineTransform.getRotateInstance(Math.toRadians( 270 ), cx, cy)));
-      lauburu = ShapeUtils.rotate( l, angle, cx, cy );
-   }
-
-   private Area createArm() {
-      Area arm = new Area(new Arc2D.Float(cx, cy - radius/2, radius, radius, 0f, 180f, Arc2D.CHORD));
-      arm.add( new Area(new Ellipse2D.Float(cx + radius/2, cy - radius/4, radius/2, radius/2)) );
-      arm.subtract( new Area(new Ellipse2D.Float(cx, cy - radius/4, radius/2, radius/2)) );
-//       arm.add( new Area(new Arc2D.Float(cx + radius/2, cy - radius/4, radius/2, radius/2, 180f, 360f, Arc2D.CHORD)) );
-//       arm.subtract( new Area(new Arc2D.Float(cx, cy - radius/4, radius/2, radius/2, 0f, 180f, Arc2D.CHORD)) );
-      return arm;
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",radius=" + radius + ",angle=" + angle;
+   }
+
+   protected Shape calculateShape() {
+      return place( OUTLINE, cx, cy, radius, angle );
+   }
+
+   /**
+    * Returns the outline of a lauburu of radius 1 centered at the origin.
+    */
+   private static CompactPath createOutline() {
+      // every arm is the upper half of a circle of radius 1/2 reaching from the center to the tip,
+      // less the upper half of a circle of radius 1/4 at the center, plus the lower half of another
+      // one at the tip. Meeting at a single point the arms would be mutually tangent there, which
+      // sends java.awt.geom.Area into an endless subdivision, so every arm starts a hair behind the
+      // center and the arms overlap slightly instead
+      CompactPath.Builder lauburu = new CompactPath.Builder( 32, 152 );
+      double k = 1 / (1 - OVERLAP);
+      float cos = 1;
+      float sin = 0;
+      for( int i = 0; i < 4; i++ ) {
+         double a = i * (Math.PI / 2);
+         lauburu.moveTo( (float) (-OVERLAP * k * cos), (float) (-OVERLAP * k * sin) );
+         lauburu.arcTo( (0.5 - OVERLAP) * k * cos, (0.5 - OVERLAP) * k * sin, 0.5 * k, a + Math.PI, Math.PI );
+         lauburu.arcTo( (0.75 - OVERLAP) * k * cos, (0.75 - OVERLAP) * k * sin, 0.25 * k, a, Math.PI );
+         lauburu.arcTo( (0.25 - OVERLAP) * k * cos, (0.25 - OVERLAP) * k * sin, 0.25 * k, a, -Math.PI );
+         lauburu.closePath();
+         float c = cos;
+         cos = -sin;
+         sin = c;
+      }
+      return lauburu.toPath();
    }
 }
@@ -28,14 +28,8 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
 import java.awt.geom.Arc2D;
-import java.awt.geom.GeneralPath;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines a rounded rectangle, each corner may have a different roundness factor.<p>
@@ -46,7 +40,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class MultiRoundRectangle implements Shape, Cloneable {
+public class MultiRoundRectangle extends AbstractShape {
    public static void validateBottomFactors( float bottomLeftWidth, float bottomRightWidth, float width ) {
       if( bottomLeftWidth + bottomRightWidth > width ) {
          throw new IllegalArgumentException( "bottom rounding factors are invalid: " + bottomLeftWidth + " + "
@@ -80,7 +74,6 @@ public class MultiRoundRectangle implements Shape, Cloneable {
    private float bottomRightHeight;
    private float bottomRightWidth;
    private float height;
-   private GeneralPath rectangle;
    private float topLeftHeight;
    private float topLeftWidth;
    private float topRightHeight;
@@ -118,7 +111,7 @@ public class MultiRoundRectangle implements Shape, Cloneable {
       this.bottomLeftHeight = bottomLeftHeight;
       this.bottomRightWidth = bottomRightWidth;
       this.bottomRightHeight = bottomRightHeight;
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
@@ -126,22 +119,6 @@ public class MultiRoundRectangle implements Shape, Cloneable {
             bottomLeftWidth, bottomLeftHeight, bottomRightWidth, bottomRightHeight );
    }
 
-   public boolean contains( double x, double y ) {
-      return rectangle.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return rectangle.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return rectangle.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return rectangle.contains( r );
-   }
-
    public float getBottomLeft() {
       return bottomLeftWidth;
    }
@@ -166,26 +143,10 @@ public class MultiRoundRectangle implements Shape, Cloneable {
       return bottomRightWidth;
    }
 
-   public Rectangle getBounds() {
-      return rectangle.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return rectangle.getBounds2D();
-   }
-
    public float getHeight() {
       return height;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return rectangle.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return rectangle.getPathIterator( at, flatness );
-   }
-
    public float getTopLeft() {
       return topLeftWidth;
    }
@@ -222,188 +183,214 @@ public class MultiRoundRectangle implements Shape, Cloneable {
       return y;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return rectangle.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return rectangle.intersects( r );
-   }
-
    /**
-    * WARNING: change the value of 'height' before calling this method.
+    * Checked against 'height' right away unless an update is in progress.
     */
    public void setBottomLeftHeight( float bottomLeftHeight ) {
-      if( this.bottomLeftHeight != bottomLeftHeight ) {
-         validateLeftFactors( topLeftHeight, bottomLeftHeight, height );
+      if( changed( "bottomLeftHeight", this.bottomLeftHeight != bottomLeftHeight ) ) {
+         if( !isUpdating() ) {
+            validateLeftFactors( topLeftHeight, bottomLeftHeight, height );
+         }
          this.bottomLeftHeight = bottomLeftHeight;
-         calculateShape();
+         recalculate( "bottomLeftHeight" );
       }
    }
 
    /**
-    * WARNING: change the value of 'width' before calling this method.
+    * Checked against 'width' right away unless an update is in progress.
     */
    public void setBottomLeftWidth( float bottomLeftWidth ) {
-      if( this.bottomLeftWidth != bottomLeftWidth ) {
-         validateBottomFactors( bottomLeftWidth, bottomRightWidth, width );
+      if( changed( "bottomLeftWidth", this.bottomLeftWidth != bottomLeftWidth ) ) {
+         if( !isUpdating() ) {
+            validateBottomFactors( bottomLeftWidth, bottomRightWidth, width );
+         }
          this.bottomLeftWidth = bottomLeftWidth;
-         calculateShape();
+         recalculate( "bottomLeftWidth" );
       }
    }
 
    /**
-    * WARNING: change the value of 'height' before calling this method.
+    * Checked against 'height' right away unless an update is in progress.
     */
    public void setBottomRightHeight( float bottomRightHeight ) {
-      if( this.bottomRightHeight != bottomRightHeight ) {
-         validateRightFactors( topRightHeight, bottomRightHeight, height );
+      if( changed( "bottomRightHeight", this.bottomRightHeight != bottomRightHeight ) ) {
+         if( !isUpdating() ) {
+            validateRightFactors( topRightHeight, bottomRightHeight, height );
+         }
          this.bottomRightHeight = bottomRightHeight;
-         calculateShape();
+         recalculate( "bottomRightHeight" );
       }
    }
 
    /**
-    * WARNING: change the value of 'width' before calling this method.
+    * Checked against 'width' right away unless an update is in progress.
     */
    public void setBottomRightWidth( float bottomRightWidth ) {
-      if( this.bottomRightWidth != bottomRightWidth ) {
-         validateBottomFactors( bottomLeftWidth, bottomRightWidth, width );
+      if( changed( "bottomRightWidth", this.bottomRightWidth != bottomRightWidth ) ) {
+         if( !isUpdating() ) {
+            validateBottomFactors( bottomLeftWidth, bottomRightWidth, width );
+         }
          this.bottomRightWidth = bottomRightWidth;
-         calculateShape();
+         recalculate( "bottomRightWidth" );
       }
    }
 
    public void setHeight( float height ) {
-      if( this.height != height ) {
+      if( changed( "height", this.height != height ) ) {
          this.height = height;
-         calculateShape();
+         recalculate( "height" );
       }
    }
 
    /**
-    * WARNING: change the value of 'height' before calling this method.
+    * Checked against 'height' right away unless an update is in progress.
     */
    public void setTopLeftHeight( float topLeftHeight ) {
-      if( this.topLeftHeight != topLeftHeight ) {
-         validateLeftFactors( topLeftHeight, bottomLeftHeight, height );
+      if( changed( "topLeftHeight", this.topLeftHeight != topLeftHeight ) ) {
+         if( !isUpdating() ) {
+            validateLeftFactors( topLeftHeight, bottomLeftHeight, height );
+         }
          this.topLeftHeight = topLeftHeight;
-         calculateShape();
+         recalculate( "topLeftHeight" );
       }
    }
 
    /**
-    * WARNING: change the value of 'width' before calling this method.
+    * Checked against 'width' right away unless an update is in progress.
     */
    public void setTopLeftWidth( float topLeftWidth ) {
-      if( this.topLeftWidth != topLeftWidth ) {
-         validateTopFactors( topLeftWidth, topRightWidth, width );
+      if( changed( "topLeftWidth", this.topLeftWidth != topLeftWidth ) ) {
+         if( !isUpdating() ) {
+            validateTopFactors( topLeftWidth, topRightWidth, width );
+         }
          this.topLeftWidth = topLeftWidth;
-         calculateShape();
+         recalculate( "topLeftWidth" );
       }
    }
 
    /**
-    * WARNING: change the value of 'height' before calling this method.
+    * Checked against 'height' right away unless an update is in progress.
     */
    public void setTopRightHeight( float topRightHeight ) {
-      if( this.topRightHeight != topRightHeight ) {
-         validateRightFactors( topRightHeight, bottomRightHeight, height );
+      if( changed( "topRightHeight", this.topRightHeight != topRightHeight ) ) {
+         if( !isUpdating() ) {
+            validateRightFactors( topRightHeight, bottomRightHeight, height );
+         }
          this.topRightHeight = topRightHeight;
-         calculateShape();
+         recalculate( "topRightHeight" );
       }
    }
 
    /**
-    * WARNING: change the value of 'width' before calling this method.
+    * Checked against 'width' right away unless an update is in progress.
     */
    public void setTopRightWidth( float topRightWidth ) {
-      if( this.topRightWidth != topRightWidth ) {
-         validateTopFactors( topLeftWidth, topRightWidth, width );
+      if( changed( "topRightWidth", this.topRightWidth != topRightWidth ) ) {
+         if( !isUpdating() ) {
+            validateTopFactors( topLeftWidth, topRightWidth, width );
+         }
          this.topRightWidth = topRightWidth;
-         calculateShape();
+         recalculate( "topRightWidth" );
       }
    }
    
    /**
-    * WARNING: change the value of 'width' before calling this method.<br/>
-    * WARNING: change the value of 'height' before calling this method.
+    * Checked against 'width' and 'height' right away unless an update is in progress.
     */
    public void setTopLeft( float topLeft ) {
-      if( topLeftWidth != topLeft && topLeftHeight != topLeft ){
-         validateTopFactors( topLeft, topRightWidth, width );
-         validateLeftFactors( topLeft, bottomLeftHeight, height );
+      if( changed( "topLeft", topLeftWidth != topLeft && topLeftHeight != topLeft ) ) {
+         if( !isUpdating() ) {
+            validateTopFactors( topLeft, topRightWidth, width );
+            validateLeftFactors( topLeft, bottomLeftHeight, height );
+         }
          this.topLeftWidth = topLeft;
          this.topLeftHeight = topLeft;
-         calculateShape();
+         recalculate( "topLeft" );
       }
    }
    
    /**
-    * WARNING: change the value of 'width' before calling this method.<br/>
-    * WARNING: change the value of 'height' before calling this method.
+    * Checked against 'width' and 'height' right away unless an update is in progress.
     */
    public void setTopRight( float topRight ) {
-      if( topRightWidth != topRight && topRightHeight != topRight ){
-         validateTopFactors( topLeftWidth, topRight, width );
-         validateRightFactors( topRight, bottomRightHeight, height );
+      if( changed( "topRight", topRightWidth != topRight && topRightHeight != topRight ) ) {
+         if( !isUpdating() ) {
+            validateTopFactors( topLeftWidth, topRight, width );
+            validateRightFactors( topRight, bottomRightHeight, height );
+         }
          this.topRightWidth = topRight;
          this.topRightHeight = topRight;
-         calculateShape();
+         recalculate( "topRight" );
       }
    }
    
    /**
-    * WARNING: change the value of 'width' before calling this method.<br/>
-    * WARNING: change the value of 'height' before calling this method.
+    * Checked against 'width' and 'height' right away unless an update is in progress.
     */
    public void setBottomLeft( float bottomLeft ) {
-      if( bottomLeftWidth != bottomLeft && bottomLeftHeight != bottomLeft ){
-         validateBottomFactors( bottomLeft, bottomRightWidth, width );
-         validateLeftFactors( bottomLeft, topLeftHeight, height );
+      if( changed( "bottomLeft", bottomLeftWidth != bottomLeft && bottomLeftHeight != bottomLeft ) ) {
+         if( !isUpdating() ) {
+            validateBottomFactors( bottomLeft, bottomRightWidth, width );
+            validateLeftFactors( bottomLeft, topLeftHeight, height );
+         }
          this.bottomLeftWidth = bottomLeft;
          this.bottomLeftHeight = bottomLeft;
-         calculateShape();
+         recalculate( "bottomLeft" );
       }
    }
 
    /**
-    * WARNING: change the value of 'width' before calling this method.<br/>
-    * WARNING: change the value of 'height' before calling this method.
+    * Checked against 'width' and 'height' right away unless an update is in progress.
     */
    public void setBottomRight( float bottomRight ) {
-      if( bottomRightWidth != bottomRight && bottomRightHeight != bottomRight ){
-         validateBottomFactors( bottomLeftWidth, bottomRight, width );
-         validateRightFactors( bottomRight, topRightHeight, height );
+      if( changed( "bottomRight", bottomRightWidth != bottomRight && bottomRightHeight != bottomRight ) ) {
+         if( !isUpdating() ) {
+            validateBottomFactors( bottomLeftWidth, bottomRight, width );
+            validateRightFactors( bottomRight, topRightHeight, height );
+         }
          this.bottomRightWidth = bottomRight;
          this.bottomRightHeight = bottomRight;
-         calculateShape();
+         recalculate( "bottomRight" );
       }
    }
 
    public void setWidth( float width ) {
-      if( this.width != width ) {
+      if( changed( "width", this.width != width ) ) {
          this.width = width;
-         calculateShape();
+         recalculate( "width" );
       }
    }
 
    public void setX( float x ) {
-      if( this.x != x ) {
+      if( changed( "x", this.x != x ) ) {
          this.x = x;
-         calculateShape();
+         recalculate( "x" );
       }
    }
 
    public void setY( float y ) {
-      if( this.y != y ) {
+      if( changed( "y", this.y != y ) ) {
          this.y = y;
-         calculateShape();
+         recalculate( "y" );
       }
    }
 
-   private void calculateShape() {
-      rectangle = new GeneralPath();
+   protected void validateParameters() {
+      validateTopFactors( topLeftWidth, topRightWidth, width );
+      validateBottomFactors( bottomLeftWidth, bottomRightWidth, width );
+      validateLeftFactors( topLeftHeight, bottomLeftHeight, height );
+      validateRightFactors( topRightHeight, bottomRightHeight, height );
+   }
+
+   protected String paramString() {
+      return "x=" + x + ",y=" + y + ",width=" + width + ",height=" + height + ",topLeftWidth=" + topLeftWidth
+            + ",topLeftHeight=" + topLeftHeight + ",topRightWidth=" + topRightWidth + ",topRightHeight="
+            + topRightHeight + ",bottomLeftWidth=" + bottomLeftWidth + ",bottomLeftHeight=" + bottomLeftHeight
+            + ",bottomRightWidth=" + bottomRightWidth + ",bottomRightHeight=" + bottomRightHeight;
+   }
+
+   protected Shape calculateShape() {
+      CompactPath.Builder rectangle = new CompactPath.Builder( 10, 34 );
       if( topLeftWidth > 0 ) {
          rectangle.moveTo( x + topLeftWidth, y );
          rectangle.append( new Arc2D.Float( x, y, topLeftWidth * 2, topLeftHeight * 2, 90, 90, Arc2D.OPEN ), true );
@@ -434,5 +421,6 @@ public class MultiRoundRectangle implements Shape, Cloneable {
       }
 
       rectangle.closePath();
+      return rectangle.toPath();
    }
 }
@@ -28,14 +28,8 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.geom.Arc2D;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.GeneralPath;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines a rays shape.<p>
@@ -46,7 +40,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Rays implements Shape, Cloneable, Centered {
+public class Rays extends AbstractShape implements Centered {
    public static void validateExtent( float extent ) {
       if( extent < 0 || extent > 1 ) {
          throw new IllegalArgumentException( "extent must be inside the range [0..1]" );
@@ -63,7 +57,6 @@ public class Rays implements Shape, Cloneable, Centered {
    private float cx;
    private float cy;
    private float extent;
-   private GeneralPath path;
    private float radius;
    private int rays;
    private boolean rounded;
@@ -90,41 +83,17 @@ public class Rays implements Shape, Cloneable, Centered {
       this.angle = ShapeUtils.normalizeAngle( angle );
       this.extent = extent;
       this.rounded = rounded;
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Rays( cx, cy, radius, rays, angle, extent, rounded );
    }
 
-   public boolean contains( double x, double y ) {
-      return path.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return path.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return path.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return path.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return path.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return path.getBounds2D();
-   }
-
    public float getCx() {
       return cx;
    }
@@ -137,14 +106,6 @@ public class Rays implements Shape, Cloneable, Centered {
       return extent;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return path.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return path.getPathIterator( at, flatness );
-   }
-
    public float getRadius() {
       return radius;
    }
@@ -153,115 +114,102 @@ public class Rays implements Shape, Cloneable, Centered {
       return rays;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return path.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return path.intersects( r );
-   }
-
    public boolean isRounded() {
       return rounded;
    }
 
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    public void setExtent( float extent ) {
-      if( this.extent != extent ) {
+      if( changed( "extent", this.extent != extent ) ) {
          validateExtent( extent );
          this.extent = extent;
-         calculateShape();
+         recalculate( "extent" );
       }
    }
 
    public void setRadius( float radius ) {
-      if( this.radius != radius ) {
+      if( changed( "radius", this.radius != radius ) ) {
          this.radius = radius;
-         calculateShape();
+         recalculate( "radius" );
       }
    }
 
    public void setRays( int rays ) {
-      if( this.rays != rays ) {
+      if( changed( "rays", this.rays != rays ) ) {
          validateRays( rays );
          this.rays = rays;
-         calculateShape();
+         recalculate( "rays" );
       }
    }
 
    public void setRounded( boolean rounded ) {
-      if( this.rounded != rounded ) {
+      if( changed( "rounded", this.rounded != rounded ) ) {
          this.rounded = rounded;
-         calculateShape();
+         recalculate( "rounded" );
       }
    }
 
-   private void calculateShape() {
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",radius=" + radius + ",rays=" + rays + ",angle=" + angle + ",extent="
+            + extent + ",rounded=" + rounded;
+   }
+
+   protected Shape calculateShape() {
       float sides = rays * 2;
       float t = 360 / sides;
-      float a = angle;
-      a = a > 360 ? a - 360 : a;
       float e = (extent * t * 2) - t;
-      float[][] points = new float[rays * 2][];
-      float[] angles = new float[rays * 2];
-      for( int i = 0; i < sides; i++ ) {
-         float r = i % 2 == 0 ? a : a + e;
-         r = r < 0 ? 360 + r : r;
-         // r = r > 360 ? r - 360 : r;
-         float ra = (float) Math.toRadians( r );
-         float x = (float) Math.abs( radius * Math.cos( ra ) );
-         float y = (float) Math.abs( radius * Math.sin( ra ) );
-         if( r <= 90 || r > 360 ) {
-            x = cx + x;
-            y = cy - y;
-         } else if( r <= 180 ) {
-            x = cx - x;
-            y = cy - y;
-         } else if( r <= 270 ) {
-            x = cx - x;
-            y = cy + y;
-         } else if( r <= 360 ) {
-            x = cx + x;
-            y = cy + y;
-         }
-         points[i] = new float[] { x, y };
-         angles[i] = r;
-         a += t;
-         a = a > 360 ? a - 360 : a;
-      }
-
-      path = new GeneralPath();
+      // each ray spans from angle + 2t*i to angle + 2t*i + t + e, both edges are found by
+      // rotating unit vectors 2t at a time instead of evaluating sin/cos per vertex
+      double step = Math.toRadians( t * 2 );
+      double cos = Math.cos( step );
+      double sin = Math.sin( step );
+      double start = Math.toRadians( angle );
+      double sx = Math.cos( start );
+      double sy = Math.sin( start );
+      double end = Math.toRadians( angle + t + e );
+      double ex = Math.cos( end );
+      double ey = Math.sin( end );
+
+      CompactPath.Builder path = new CompactPath.Builder( rays * (rounded ? 5 : 4), rays * (rounded ? 12 : 6) );
       for( int i = 0; i < rays; i++ ) {
          path.moveTo( cx, cy );
-         path.lineTo( points[(2 * i)][0], points[(2 * i)][1] );
+         path.lineTo( (float) (cx + (radius * sx)), (float) (cy - (radius * sy)) );
          if( rounded ) {
-            path.append( new Arc2D.Float( cx - radius, cy - radius, radius * 2, radius * 2, angles[(2 * i)], t + e,
-                  Arc2D.OPEN ), true );
+            float a = (angle + (t * 2 * i)) % 360;
+            path.append( new Arc2D.Float( cx - radius, cy - radius, radius * 2, radius * 2, a, t + e, Arc2D.OPEN ),
+                  true );
          } else {
-            path.lineTo( points[(2 * i) + 1][0], points[(2 * i) + 1][1] );
+            path.lineTo( (float) (cx + (radius * ex)), (float) (cy - (radius * ey)) );
          }
          path.closePath();
+         double nx = (sx * cos) - (sy * sin);
+         sy = (sy * cos) + (sx * sin);
+         sx = nx;
+         nx = (ex * cos) - (ey * sin);
+         ey = (ey * cos) + (ex * sin);
+         ex = nx;
       }
+      return path.toPath();
    }
 }
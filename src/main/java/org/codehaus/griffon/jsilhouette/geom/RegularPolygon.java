@@ -28,13 +28,8 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.GeneralPath;
-import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines a regular polygon shape.<p>
@@ -45,7 +40,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class RegularPolygon implements Shape, Cloneable, Centered {
+public class RegularPolygon extends AbstractShape implements Centered {
    public static void validateSides( int sides ) {
       if( sides < 3 ) {
          throw new IllegalArgumentException( "sides can not be less than 3" );
@@ -55,8 +50,6 @@ public class RegularPolygon implements Shape, Cloneable, Centered {
    private float angle;
    private float cx;
    private float cy;
-   private GeneralPath path;
-   private Point2D[] points;
    private float radius;
    private int sides;
 
@@ -75,41 +68,17 @@ public class RegularPolygon implements Shape, Cloneable, Centered {
       this.radius = radius;
       this.sides = sides;
       this.angle = ShapeUtils.normalizeAngle( angle );
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new RegularPolygon( cx, cy, radius, sides, angle );
    }
 
-   public boolean contains( double x, double y ) {
-      return path.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return path.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return path.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return path.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return path.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return path.getBounds2D();
-   }
-
    public float getCx() {
       return cx;
    }
@@ -118,16 +87,12 @@ public class RegularPolygon implements Shape, Cloneable, Centered {
       return cy;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return path.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return path.getPathIterator( at, flatness );
-   }
-
+   /**
+    * Returns the vertices of this polygon.
+    */
    public Point2D[] getPoints() {
-      return points;
+      Shape path = getShape();
+      return path instanceof CompactPath ? ((CompactPath) path).getVertices() : null;
    }
 
    public float getRadius() {
@@ -138,83 +103,69 @@ public class RegularPolygon implements Shape, Cloneable, Centered {
       return sides;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return path.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return path.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    public void setRadius( float radius ) {
-      if( this.radius != radius ) {
+      if( changed( "radius", this.radius != radius ) ) {
          this.radius = radius;
-         calculateShape();
+         recalculate( "radius" );
       }
    }
 
    public void setSides( int sides ) {
-      if( this.sides != sides ) {
+      if( changed( "sides", this.sides != sides ) ) {
          validateSides( sides );
          this.sides = sides;
-         calculateShape();
+         recalculate( "sides" );
       }
    }
 
-   private void calculateShape() {
-      float t = 360 / sides;
-      float a = angle;
-      a = a > 360 ? a - 360 : a;
-      points = new Point2D[sides];
-      path = new GeneralPath();
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",radius=" + radius + ",sides=" + sides + ",angle=" + angle;
+   }
+
+   protected Shape calculateShape() {
+      // rotate a unit vector one side at a time instead of evaluating sin/cos per vertex
+      double step = (Math.PI * 2) / sides;
+      double cos = Math.cos( step );
+      double sin = Math.sin( step );
+      double start = Math.toRadians( angle );
+      double ux = Math.cos( start );
+      double uy = Math.sin( start );
+      CompactPath.Builder path = new CompactPath.Builder( sides + 1, sides * 2 );
       for( int i = 0; i < sides; i++ ) {
-         float ra = (float) Math.toRadians( a );
-         float x = (float) Math.abs( radius * Math.cos( ra ) );
-         float y = (float) Math.abs( radius * Math.sin( ra ) );
-         if( a <= 90 ) {
-            x = cx + x;
-            y = cy - y;
-         } else if( a <= 180 ) {
-            x = cx - x;
-            y = cy - y;
-         } else if( a <= 270 ) {
-            x = cx - x;
-            y = cy + y;
-         } else if( a <= 360 ) {
-            x = cx + x;
-            y = cy + y;
-         }
+         float x = (float) (cx + (radius * ux));
+         float y = (float) (cy - (radius * uy));
          if( i == 0 ) {
             path.moveTo( x, y );
          } else {
             path.lineTo( x, y );
          }
-         points[i] = new Point2D.Float( x, y );
-         a += t;
-         a = a > 360 ? a - 360 : a;
+         double nx = (ux * cos) - (uy * sin);
+         uy = (uy * cos) + (ux * sin);
+         ux = nx;
       }
       path.closePath();
+      return path.toPath();
    }
 }
@@ -28,14 +28,8 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.Area;
 import java.awt.geom.AffineTransform;
-import java.awt.geom.Ellipse2D;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines a <a href="http://en.wikipedia.org/wiki/Reuleaux_triangle">Reuleaux triangular</a> shape.<p>
@@ -46,12 +40,11 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class ReuleauxTriangle implements Shape, Cloneable, Centered {
+public class ReuleauxTriangle extends AbstractShape implements Centered {
    private float angle;
    private float cx;
    private float cy;
    private boolean rotateAtCenter;
-   private Shape triangle;
    private float width;
    private float x;
    private float y;
@@ -70,46 +63,24 @@ public class ReuleauxTriangle implements Shape, Cloneable, Centered {
       this.width = width;
       this.angle = ShapeUtils.normalizeAngle( angle );
       this.rotateAtCenter = rotateAtCenter;
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Triangle( x, y, width, angle, rotateAtCenter );
    }
 
-   public boolean contains( double x, double y ) {
-      return triangle.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return triangle.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return triangle.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return triangle.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return triangle.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return triangle.getBounds2D();
-   }
-
    public float getCx() {
+      validate();
       return cx;
    }
 
    public float getCy() {
+      validate();
       return cy;
    }
 
@@ -121,103 +92,95 @@ public class ReuleauxTriangle implements Shape, Cloneable, Centered {
       return y;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return triangle.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return triangle.getPathIterator( at, flatness );
-   }
-
    public float getWidth() {
       return width;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return triangle.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return triangle.intersects( r );
-   }
-
    public boolean isRotateAtCenter() {
       return rotateAtCenter;
    }
 
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setX( float x ) {
-      if( this.x != x ) {
+      if( changed( "x", this.x != x ) ) {
          this.x = x;
-         calculateShape();
+         recalculate( "x" );
       }
    }
 
    public void setY( float y ) {
-      if( this.y != y ) {
+      if( changed( "y", this.y != y ) ) {
          this.y = y;
-         calculateShape();
+         recalculate( "y" );
       }
    }
 
    public void setWidth( float width ) {
-      if( this.width != width ) {
+      if( changed( "width", this.width != width ) ) {
          this.width = width;
-         calculateShape();
+         recalculate( "width" );
       }
    }
 
    public void setRotateAtCenter( boolean rotateAtCenter ) {
-      if( this.rotateAtCenter != rotateAtCenter ) {
+      if( changed( "rotateAtCenter", this.rotateAtCenter != rotateAtCenter ) ) {
          this.rotateAtCenter = rotateAtCenter;
-         calculateShape();
+         recalculate( "rotateAtCenter" );
       }
    }
 
-   private void calculateShape() {
-      float height = (float) Math.abs( Math.sqrt( 3 ) / 2 * width );
-      float[] p1 = {x, y};
-      float[] p2 = {x + width, y};
-      float[] p3 = {x + (width / 2), y - height};
+   protected String paramString() {
+      return "x=" + x + ",y=" + y + ",width=" + width + ",angle=" + angle + ",rotateAtCenter=" + rotateAtCenter;
+   }
 
+   protected Shape calculateShape() {
+      float height = (float) Math.abs( Math.sqrt( 3 ) / 2 * width );
+      float[] points = { x, y, x + width, y, x + (width / 2), y - height };
       float perimeter = width * 3;
-      cx = ((width * p3[0]) + (width * p1[0]) + (width * p2[0])) / perimeter;
-      cy = ((width * p3[1]) + (width * p1[1]) + (width * p2[1])) / perimeter;
-
-      Ellipse2D c1 = new Ellipse2D.Float(
-         p1[0] - width,
-         p1[1] - width,
-         width * 2,
-         width * 2
-      );
-      Ellipse2D c2 = new Ellipse2D.Float(
-         p2[0] - width,
-         p2[1] - width,
-         width * 2,
-         width * 2
-      );
-      Ellipse2D c3 = new Ellipse2D.Float(
-         p3[0] - width,
-         p3[1] - width,
-         width * 2,
-         width * 2
-      );
-
-      triangle = new Area(c1);
-      ((Area)triangle).intersect( new Area(c2) );
-      ((Area)triangle).intersect( new Area(c3) );
-
-      if( rotateAtCenter ) {
-         triangle = ShapeUtils.rotate( triangle, angle, cx, cy );
-      } else {
-         triangle = ShapeUtils.rotate( triangle, angle, x, y );
+      cx = ((width * points[4]) + (width * points[0]) + (width * points[2])) / perimeter;
+      cy = ((width * points[5]) + (width * points[1]) + (width * points[3])) / perimeter;
+
+      // each side is the arc of the circle centered at the opposite vertex
+      double sixth = Math.PI / 3;
+      CompactPath.Builder path = new CompactPath.Builder( 8, 38 );
+      path.moveTo( points[2], points[3] );
+      path.arcTo( points[0], points[1], width, 0, -sixth );
+      path.arcTo( points[2], points[3], width, -sixth * 2, -sixth );
+      path.arcTo( points[4], points[5], width, sixth * 2, -sixth );
+      path.closePath();
+
+      float px = rotateAtCenter ? cx : x;
+      float py = rotateAtCenter ? cy : y;
+      if( angle != 0 ) {
+         AffineTransform.getRotateInstance( Math.toRadians( 360 - angle ), px, py ).transform( points, 0, points, 0, 3 );
+      }
+      return new Arcs( ShapeUtils.rotateCompact( path.toPath(), angle, px, py ), points, width );
+   }
+
+   /**
+    * The overlap of the three circles centered at the vertices of an equilateral triangle,
+    * each passing through the other two vertices. Points are tested against the circles.
+    */
+   private static final class Arcs extends AnalyticShape {
+      private final float[] vertices;
+      private final float radius;
+
+      Arcs( Shape outline, float[] vertices, float radius ) {
+         super( outline );
+         this.vertices = vertices;
+         this.radius = radius;
+      }
+
+      public boolean contains( double x, double y ) {
+         return inside( x, y, vertices[0], vertices[1], radius ) && inside( x, y, vertices[2], vertices[3], radius )
+               && inside( x, y, vertices[4], vertices[5], radius );
       }
    }
 }
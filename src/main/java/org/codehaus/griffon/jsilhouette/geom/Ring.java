@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.geom.PathIterator;
+
+/**
+ * The geometry of a {@link Donut}: the area between two concentric circles or regular
+ * polygons.<p>
+ * The outline is a single even-odd path made of the outer and the inner subpaths. Hit
+ * tests are answered from the radii instead of walking that path, except for polygons
+ * with few sides and for rectangle tests against polygonal rings.
+ *
+ * @author Andres Almiray
+ */
+final class Ring extends AnalyticShape {
+   private final float cx;
+   private final float cy;
+   private final float or;
+   private final float ir;
+   private final int sides;
+   private final double angle;
+
+   /**
+    * @param sides the number of sides, less than 3 for circles
+    * @param angle rotation of polygonal rings in degrees
+    */
+   Ring( float cx, float cy, float or, float ir, int sides, float angle ) {
+      super( outline( cx, cy, or, ir, sides > 2 ? sides : 0, Math.toRadians( angle ) ) );
+      this.cx = cx;
+      this.cy = cy;
+      this.or = or;
+      this.ir = ir;
+      this.sides = sides > 2 ? sides : 0;
+      this.angle = this.sides > 0 ? Math.toRadians( angle ) : 0;
+   }
+
+   private static CompactPath outline( float cx, float cy, float or, float ir, int sides, double angle ) {
+      CompactPath.Builder path;
+      if( sides > 0 ) {
+         path = new CompactPath.Builder( PathIterator.WIND_EVEN_ODD, (sides + 1) * 2, sides * 4 );
+         appendPolygon( path, cx, cy, or, sides, angle );
+         appendPolygon( path, cx, cy, ir, sides, angle );
+      } else {
+         path = new CompactPath.Builder( PathIterator.WIND_EVEN_ODD, 12, 52 );
+         appendCircle( path, cx, cy, or );
+         appendCircle( path, cx, cy, ir );
+      }
+      return path.toPath();
+   }
+
+   private static void appendPolygon( CompactPath.Builder path, float cx, float cy, double radius, int sides,
+         double angle ) {
+      // rotate a unit vector one side at a time, as RegularPolygon does
+      double step = (Math.PI * 2) / sides;
+      double cos = Math.cos( step );
+      double sin = Math.sin( step );
+      double ux = Math.cos( angle );
+      double uy = Math.sin( angle );
+      for( int i = 0; i < sides; i++ ) {
+         float x = (float) (cx + (radius * ux));
+         float y = (float) (cy - (radius * uy));
+         if( i == 0 ) {
+            path.moveTo( x, y );
+         } else {
+            path.lineTo( x, y );
+         }
+         double nx = (ux * cos) - (uy * sin);
+         uy = (uy * cos) + (ux * sin);
+         ux = nx;
+      }
+      path.closePath();
+   }
+
+   private static void appendCircle( CompactPath.Builder path, float cx, float cy, double radius ) {
+      path.moveTo( (float) (cx + radius), cy );
+      path.arcTo( cx, cy, radius, 0, Math.PI * 2 );
+      path.closePath();
+   }
+
+   public boolean contains( double x, double y ) {
+      double dx = x - cx;
+      double dy = y - cy;
+      double d = (dx * dx) + (dy * dy);
+      if( sides == 0 ) {
+         return d < (double) or * or && d >= (double) ir * ir;
+      }
+      if( sides < 8 ) {
+         // walking a few edges is cheaper than the trigonometry below
+         return outline.contains( x, y );
+      }
+      // outside the outer polygon's circumcircle or inside the inner polygon's incircle
+      double apothem = Math.cos( Math.PI / sides );
+      if( d >= (double) or * or || d < (double) ir * ir * apothem * apothem ) {
+         return false;
+      }
+      // fold the point into the sector of one side, its projection on the side's
+      // normal is then compared with the apothem of each polygon
+      double step = (Math.PI * 2) / sides;
+      double a = Math.atan2( -dy, dx ) - angle;
+      a -= Math.floor( a / step ) * step;
+      double projection = Math.sqrt( d ) * Math.cos( a - (step / 2) );
+      return projection < or * apothem && projection >= ir * apothem;
+   }
+
+   public boolean contains( double x, double y, double w, double h ) {
+      if( sides > 0 ) {
+         return super.contains( x, y, w, h );
+      }
+      if( w <= 0 || h <= 0 ) {
+         return false;
+      }
+      // every corner inside the outer circle and the hole outside of the rectangle
+      return farthest( x, y, w, h ) <= (double) or * or && closest( x, y, w, h ) >= (double) ir * ir;
+   }
+
+   public boolean intersects( double x, double y, double w, double h ) {
+      if( sides > 0 ) {
+         return super.intersects( x, y, w, h );
+      }
+      if( w <= 0 || h <= 0 ) {
+         return false;
+      }
+      // the rectangle reaches into the outer circle and does not fit in the hole
+      return closest( x, y, w, h ) < (double) or * or && farthest( x, y, w, h ) > (double) ir * ir;
+   }
+
+   /**
+    * Squared distance from the center to the closest point of the rectangle.
+    */
+   private double closest( double x, double y, double w, double h ) {
+      double dx = Math.max( Math.max( x - cx, cx - (x + w) ), 0 );
+      double dy = Math.max( Math.max( y - cy, cy - (y + h) ), 0 );
+      return (dx * dx) + (dy * dy);
+   }
+
+   /**
+    * Squared distance from the center to the farthest corner of the rectangle.
+    */
+   private double farthest( double x, double y, double w, double h ) {
+      double dx = Math.max( Math.abs( x - cx ), Math.abs( x + w - cx ) );
+      double dy = Math.max( Math.abs( y - cy ), Math.abs( y + h - cy ) );
+      return (dx * dx) + (dy * dy);
+   }
+}
@@ -28,15 +28,9 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
 import java.awt.geom.Arc2D;
 import java.awt.geom.Area;
-import java.awt.geom.GeneralPath;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines a rounded pushpin shape.<p>
@@ -47,12 +41,11 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class RoundPin implements Shape, Cloneable, Centered {
+public class RoundPin extends AbstractShape implements Centered {
    private float angle;
    private float cx;
    private float cy;
    private float height;
-   private Shape pin;
    private float radius;
 
    public RoundPin() {
@@ -69,41 +62,17 @@ public class RoundPin implements Shape, Cloneable, Centered {
       this.radius = radius;
       this.height = height;
       this.angle = ShapeUtils.normalizeAngle( angle );
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new RoundPin( cx, cy, radius, height, angle );
    }
 
-   public boolean contains( double x, double y ) {
-      return pin.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return pin.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return pin.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return pin.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return pin.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return pin.getBounds2D();
-   }
-
    public float getCx() {
       return cx;
    }
@@ -116,72 +85,71 @@ public class RoundPin implements Shape, Cloneable, Centered {
       return height;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return pin.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return pin.getPathIterator( at, flatness );
-   }
-
    public float getRadius() {
       return radius;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return pin.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return pin.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    public void setHeight( float height ) {
-      if( this.height != height ) {
+      if( changed( "height", this.height != height ) ) {
          this.height = height;
-         calculateShape();
+         recalculate( "height" );
       }
    }
 
    public void setRadius( float radius ) {
-      if( this.radius != radius ) {
+      if( changed( "radius", this.radius != radius ) ) {
          this.radius = radius;
-         calculateShape();
+         recalculate( "radius" );
       }
    }
 
-   private void calculateShape() {
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",radius=" + radius + ",height=" + height + ",angle=" + angle;
+   }
+
+   protected Shape calculateShape() {
+      if( height >= 0 && radius >= 0 ) {
+         // the head is the upper half of the circle, the body hangs from its diameter
+         CompactPath.Builder pin = new CompactPath.Builder( 5, 16 );
+         pin.moveTo( cx + radius, cy );
+         pin.arcTo( cx, cy, radius, 0, -Math.PI );
+         pin.lineTo( cx, cy + height );
+         pin.closePath();
+         return ShapeUtils.rotateCompact( pin.toPath(), angle, cx, cy );
+      }
+
+      // the body points into the head, let Area work out the union
       Arc2D.Float head = new Arc2D.Float( cx - (radius * 1), cy - (radius * 1), radius * 2, radius * 2, 0, 181,
             Arc2D.PIE );
-      GeneralPath body = new GeneralPath();
+      CompactPath.Builder body = new CompactPath.Builder( 4, 6 );
       body.moveTo( cx - radius, cy );
       body.lineTo( cx, cy + height );
       body.lineTo( cx + radius, cy );
       body.closePath();
-      pin = new Area( head );
-      ((Area) pin).add( new Area( body ) );
-      pin = ShapeUtils.rotate( pin, angle, cx, cy );
+      Area pin = new Area( head );
+      add( pin, body.toPath() );
+      return ShapeUtils.rotateCompact( pin, angle, cx, cy );
    }
 }
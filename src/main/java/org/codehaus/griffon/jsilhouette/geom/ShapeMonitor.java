@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+
+/**
+ * Receives notifications whenever a shape calculates its geometry or
+ * {@link ShapeUtils#rotate(Shape, float, float, float)} rotates one.<p>
+ * Monitors are registered with {@link ShapeUtils#addShapeMonitor(ShapeMonitor)} and
+ * are called on the thread doing the work, keep them fast. {@link ShapeMonitorAdapter}
+ * provides empty implementations of every method.
+ *
+ * @author Andres Almiray
+ */
+public interface ShapeMonitor {
+   /**
+    * Called before <tt>shape</tt> calculates its geometry.
+    *
+    * @param shape the shape being calculated
+    * @param trigger the name of the property that changed (the first one since the last
+    *        calculation for lazy shapes), null when called from a constructor
+    * @return a token handed back to {@link #calculationFinished(Object, AbstractShape, Shape, String, int)}
+    */
+   Object calculationStarted( AbstractShape shape, String trigger );
+
+   /**
+    * Called after <tt>shape</tt> calculated its geometry. Inspect <tt>geometry</tt> rather than
+    * the shape, an asynchronous shape discards geometries calculated from properties that
+    * changed meanwhile.
+    *
+    * @param token the value returned by {@link #calculationStarted(AbstractShape, String)}
+    * @param shape the shape, already delegating to its new geometry unless it was discarded
+    * @param geometry the calculated geometry
+    * @param trigger the name of the property that changed (the first one since the last
+    *        calculation for lazy shapes), null when called from a constructor
+    * @param areaOperations the number of Area add/subtract/intersect calls made
+    */
+   void calculationFinished( Object token, AbstractShape shape, Shape geometry, String trigger, int areaOperations );
+
+   /**
+    * Called before <tt>shape</tt> is rotated by <tt>angle</tt> degrees around (x,y).
+    *
+    * @return a token handed back to {@link #rotationFinished(Object, Shape)}
+    */
+   Object rotationStarted( Shape shape, float angle, float x, float y );
+
+   /**
+    * Called after a rotation finished.
+    *
+    * @param token the value returned by {@link #rotationStarted(Shape, float, float, float)}
+    * @param rotated the rotated shape
+    */
+   void rotationFinished( Object token, Shape rotated );
+
+   /**
+    * Called when a setter received the value the shape already had, no calculation follows.
+    *
+    * @param shape the shape
+    * @param property the name of the property being set
+    */
+   void setterIgnored( AbstractShape shape, String property );
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+
+/**
+ * Calculation statistics of a single shape class, collected by {@link ShapeStatisticsRegistry}.<p>
+ * Calculation times are kept in a histogram of power of two buckets, percentiles
+ * report the upper bound of the bucket they fall in.
+ *
+ * @author Andres Almiray
+ */
+public class ShapeStatistics implements ShapeStatisticsMBean {
+   private static final int CONSTRUCTED = 0;
+   private static final int CALCULATIONS = 1;
+   private static final int IGNORED_SETTERS = 2;
+   private static final int TIME = 3;
+   private static final int SEGMENTS = 4;
+   private static final int AREA_OPERATIONS = 5;
+   private static final int AREA_CALCULATIONS = 6;
+   private static final int AREA_CURVES = 7;
+   // calculations that took [2^i, 2^(i+1)) nanoseconds
+   private static final int HISTOGRAM = 8;
+   private static final int BUCKETS = 64;
+
+   private final Class<?> shapeClass;
+   private final StripedCounters counters = new StripedCounters( HISTOGRAM + BUCKETS );
+
+   ShapeStatistics( Class<?> shapeClass ) {
+      this.shapeClass = shapeClass;
+   }
+
+   void calculated( Shape geometry, boolean constructed, long time, int areaOperations ) {
+      int segments = segments( geometry );
+      if( constructed ) {
+         counters.add( CONSTRUCTED, 1 );
+      }
+      counters.add( CALCULATIONS, 1 );
+      counters.add( TIME, time );
+      counters.add( SEGMENTS, segments );
+      if( areaOperations > 0 ) {
+         counters.add( AREA_OPERATIONS, areaOperations );
+         counters.add( AREA_CALCULATIONS, 1 );
+         counters.add( AREA_CURVES, segments );
+      }
+      counters.add( HISTOGRAM + (63 - Long.numberOfLeadingZeros( Math.max( time, 1 ) )), 1 );
+   }
+
+   /**
+    * Returns the number of segments of <tt>geometry</tt>. Compact outlines know their count,
+    * only geometry of other types is iterated.
+    */
+   private static int segments( Shape geometry ) {
+      if( geometry instanceof AnalyticShape ) {
+         geometry = ((AnalyticShape) geometry).outline;
+      }
+      if( geometry instanceof CompactPath ) {
+         return ((CompactPath) geometry).getSegmentCount();
+      }
+      int segments = 0;
+      for( PathIterator i = geometry.getPathIterator( null ); !i.isDone(); i.next() ) {
+         segments++;
+      }
+      return segments;
+   }
+
+   void setterIgnored() {
+      counters.add( IGNORED_SETTERS, 1 );
+   }
+
+   public String getShapeClass() {
+      return shapeClass.getName();
+   }
+
+   public long getInstancesConstructed() {
+      return counters.sum( CONSTRUCTED );
+   }
+
+   public long getCalculations() {
+      return counters.sum( CALCULATIONS );
+   }
+
+   public long getIgnoredSetters() {
+      return counters.sum( IGNORED_SETTERS );
+   }
+
+   public long getTotalCalculationTime() {
+      return counters.sum( TIME );
+   }
+
+   public double getAverageCalculationTime() {
+      return average( TIME, CALCULATIONS );
+   }
+
+   public long getMedianCalculationTime() {
+      return getCalculationTimePercentile( 0.5 );
+   }
+
+   public long get90thPercentileCalculationTime() {
+      return getCalculationTimePercentile( 0.9 );
+   }
+
+   public long get99thPercentileCalculationTime() {
+      return getCalculationTimePercentile( 0.99 );
+   }
+
+   public double getAverageSegments() {
+      return average( SEGMENTS, CALCULATIONS );
+   }
+
+   public long getAreaOperations() {
+      return counters.sum( AREA_OPERATIONS );
+   }
+
+   public double getAverageAreaCurves() {
+      return average( AREA_CURVES, AREA_CALCULATIONS );
+   }
+
+   public void reset() {
+      counters.reset();
+   }
+
+   /**
+    * Returns the calculation time (in nanoseconds) that <tt>percentile</tt> [0..1] of all
+    * calculations did not exceed, 0 if nothing was calculated yet.
+    */
+   public long getCalculationTimePercentile( double percentile ) {
+      long[] buckets = new long[BUCKETS];
+      long total = 0;
+      for( int i = 0; i < BUCKETS; i++ ) {
+         buckets[i] = counters.sum( HISTOGRAM + i );
+         total += buckets[i];
+      }
+      long target = (long) Math.ceil( total * percentile );
+      long count = 0;
+      for( int i = 0; i < BUCKETS; i++ ) {
+         count += buckets[i];
+         if( count > 0 && count >= target ) {
+            return i < 62 ? (1L << (i + 1)) - 1 : Long.MAX_VALUE;
+         }
+      }
+      return 0;
+   }
+
+   public String toString() {
+      return getShapeClass() + "[instances=" + getInstancesConstructed() + ",calculations=" + getCalculations()
+            + ",ignoredSetters=" + getIgnoredSetters() + ",averageTime=" + (long) getAverageCalculationTime()
+            + "ns,p99=" + get99thPercentileCalculationTime() + "ns,averageSegments=" + getAverageSegments()
+            + ",areaOperations=" + getAreaOperations() + "]";
+   }
+
+   private double average( int sum, int count ) {
+      long n = counters.sum( count );
+      return n == 0 ? 0 : (double) counters.sum( sum ) / n;
+   }
+}
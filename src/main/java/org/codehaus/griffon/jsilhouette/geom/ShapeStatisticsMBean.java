@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+/**
+ * Management interface of {@link ShapeStatistics}. Times are given in nanoseconds.
+ *
+ * @author Andres Almiray
+ */
+public interface ShapeStatisticsMBean {
+   String getShapeClass();
+
+   long getInstancesConstructed();
+
+   /**
+    * Number of geometry calculations, including the ones made by constructors.
+    */
+   long getCalculations();
+
+   /**
+    * Number of setter calls that received the current value and were ignored.
+    */
+   long getIgnoredSetters();
+
+   long getTotalCalculationTime();
+
+   double getAverageCalculationTime();
+
+   long getMedianCalculationTime();
+
+   long get90thPercentileCalculationTime();
+
+   long get99thPercentileCalculationTime();
+
+   /**
+    * Average number of path segments of the calculated geometry.
+    */
+   double getAverageSegments();
+
+   /**
+    * Number of Area add/subtract/intersect calls made by all calculations.
+    */
+   long getAreaOperations();
+
+   /**
+    * Average number of curves (path segments) of the geometry built with Area operations.
+    */
+   double getAverageAreaCurves();
+
+   void reset();
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Collects {@link ShapeStatistics} per shape class and exposes each one as an MBean named
+ * <tt>org.codehaus.griffon.jsilhouette:type=ShapeStatistics,name=&lt;class name&gt;</tt>,
+ * the {@link ShapeTemplateCache} is exposed as well. Names are fully qualified, shape classes
+ * of the same simple name in different packages get an MBean each.<p>
+ * Statistics are off by default, call {@link #enable()} to start collecting them. Counters
+ * are striped across threads so shapes may be updated concurrently without contention.
+ *
+ * @author Andres Almiray
+ */
+public final class ShapeStatisticsRegistry extends ShapeMonitorAdapter {
+   public static final String DOMAIN = "org.codehaus.griffon.jsilhouette";
+
+   private static final ShapeStatisticsRegistry INSTANCE = new ShapeStatisticsRegistry();
+
+   private final ConcurrentMap<Class<?>, ShapeStatistics> statistics = new ConcurrentHashMap<Class<?>, ShapeStatistics>();
+   private volatile boolean enabled;
+
+   private ShapeStatisticsRegistry(){}
+
+   public static synchronized void enable() {
+      if( !INSTANCE.enabled ) {
+         INSTANCE.enabled = true;
+         for( ShapeStatistics s : INSTANCE.statistics.values() ) {
+            register( s );
+         }
+         register( ShapeTemplateCache.getInstance(), templateCacheName() );
+         ShapeUtils.addShapeMonitor( INSTANCE );
+      }
+   }
+
+   public static synchronized void disable() {
+      if( INSTANCE.enabled ) {
+         ShapeUtils.removeShapeMonitor( INSTANCE );
+         INSTANCE.enabled = false;
+         for( ShapeStatistics s : INSTANCE.statistics.values() ) {
+            unregister( s );
+         }
+         unregister( templateCacheName() );
+      }
+   }
+
+   public static boolean isEnabled() {
+      return INSTANCE.enabled;
+   }
+
+   /**
+    * Returns the statistics of <tt>shapeClass</tt>, null if no instance has been seen yet.
+    */
+   public static ShapeStatistics getStatistics( Class<? extends AbstractShape> shapeClass ) {
+      return INSTANCE.statistics.get( shapeClass );
+   }
+
+   public static List<ShapeStatistics> getAllStatistics() {
+      return new ArrayList<ShapeStatistics>( INSTANCE.statistics.values() );
+   }
+
+   public static void reset() {
+      for( ShapeStatistics s : INSTANCE.statistics.values() ) {
+         s.reset();
+      }
+   }
+
+   public Object calculationStarted( AbstractShape shape, String trigger ) {
+      return Long.valueOf( System.nanoTime() );
+   }
+
+   public void calculationFinished( Object token, AbstractShape shape, Shape geometry, String trigger,
+         int areaOperations ) {
+      long time = System.nanoTime() - ((Long) token).longValue();
+      statisticsOf( shape ).calculated( geometry, trigger == null, time, areaOperations );
+   }
+
+   public void setterIgnored( AbstractShape shape, String property ) {
+      statisticsOf( shape ).setterIgnored();
+   }
+
+   private ShapeStatistics statisticsOf( AbstractShape shape ) {
+      Class<?> shapeClass = shape.getClass();
+      ShapeStatistics s = statistics.get( shapeClass );
+      if( s == null ) {
+         ShapeStatistics created = new ShapeStatistics( shapeClass );
+         s = statistics.putIfAbsent( shapeClass, created );
+         if( s == null ) {
+            s = created;
+            synchronized( ShapeStatisticsRegistry.class ) {
+               if( enabled ) {
+                  register( s );
+               }
+            }
+         }
+      }
+      return s;
+   }
+
+   private static ObjectName nameOf( ShapeStatistics s ) throws JMException {
+      return new ObjectName( DOMAIN + ":type=ShapeStatistics,name=" + s.getShapeClass() );
+   }
+
+   private static ObjectName templateCacheName() {
+      try {
+         return new ObjectName( DOMAIN + ":type=ShapeTemplateCache" );
+      } catch( JMException e ) {
+         throw new IllegalStateException( "Invalid template cache name: " + e );
+      }
+   }
+
+   private static void register( ShapeStatistics s ) {
+      try {
+         register( s, nameOf( s ) );
+      } catch( JMException e ) {
+         throw new IllegalStateException( "Could not register statistics of " + s.getShapeClass() + ": " + e );
+      }
+   }
+
+   private static void register( Object mbean, ObjectName name ) {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      try {
+         if( !server.isRegistered( name ) ) {
+            server.registerMBean( mbean, name );
+         }
+      } catch( JMException e ) {
+         throw new IllegalStateException( "Could not register " + name + ": " + e );
+      }
+   }
+
+   private static void unregister( ShapeStatistics s ) {
+      try {
+         unregister( nameOf( s ) );
+      } catch( JMException e ) {
+         throw new IllegalStateException( "Could not unregister statistics of " + s.getShapeClass() + ": " + e );
+      }
+   }
+
+   private static void unregister( ObjectName name ) {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      try {
+         if( server.isRegistered( name ) ) {
+            server.unregisterMBean( name );
+         }
+      } catch( JMException e ) {
+         throw new IllegalStateException( "Could not unregister " + name + ": " + e );
+      }
+   }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide cache of normalized shape outlines.<p>
+ * Shapes that only differ by position, size and rotation share a template: an outline
+ * centered at the origin with unit size, built once per template key (the shape class
+ * plus the parameters that change its topology, for an {@link Asterisk} its beams,
+ * roundness and ratio of width to radius) and transformed into place by each instance.
+ * Templates are frozen into immutable compact paths, instances always work on a
+ * transformed copy.<p>
+ * Only shapes whose outline is expensive to build are worth a template, the ones traced
+ * in a single pass (e.g. {@link Cross}) or kept as a constant (e.g. {@link Lauburu}) are
+ * placed directly.<p>
+ * The cache keeps the 256 most recently used templates by default, the system property
+ * <tt>jsilhouette.templates</tt> or {@link #setMaximumSize(int)} change that. It is also
+ * exposed as the MBean <tt>org.codehaus.griffon.jsilhouette:type=ShapeTemplateCache</tt>
+ * while {@link ShapeStatisticsRegistry} is enabled.
+ *
+ * @author Andres Almiray
+ */
+public final class ShapeTemplateCache implements ShapeTemplateCacheMBean {
+   private static final ShapeTemplateCache INSTANCE = new ShapeTemplateCache();
+
+   private final Map<Key, CompactPath> templates = new LinkedHashMap<Key, CompactPath>( 16, 0.75f, true ) {
+      protected boolean removeEldestEntry( Map.Entry<Key, CompactPath> eldest ) {
+         if( size() > maximumSize ) {
+            evictions++;
+            return true;
+         }
+         return false;
+      }
+   };
+   private int maximumSize = Integer.getInteger( "jsilhouette.templates", 256 ).intValue();
+   private long hits;
+   private long misses;
+   private long evictions;
+
+   private ShapeTemplateCache(){}
+
+   public static ShapeTemplateCache getInstance() {
+      return INSTANCE;
+   }
+
+   public synchronized long getHits() {
+      return hits;
+   }
+
+   public synchronized long getMisses() {
+      return misses;
+   }
+
+   public synchronized long getEvictions() {
+      return evictions;
+   }
+
+   public synchronized double getHitRatio() {
+      long lookups = hits + misses;
+      return lookups == 0 ? 0 : (double) hits / lookups;
+   }
+
+   public synchronized int getSize() {
+      return templates.size();
+   }
+
+   public synchronized int getMaximumSize() {
+      return maximumSize;
+   }
+
+   public synchronized void setMaximumSize( int maximumSize ) {
+      if( maximumSize < 0 ) {
+         throw new IllegalArgumentException( "maximumSize can not be less than zero [maximumSize=" + maximumSize + "]" );
+      }
+      this.maximumSize = maximumSize;
+      Iterator<Key> keys = templates.keySet().iterator();
+      while( templates.size() > maximumSize && keys.hasNext() ) {
+         keys.next();
+         keys.remove();
+         evictions++;
+      }
+   }
+
+   public synchronized void clear() {
+      templates.clear();
+   }
+
+   public synchronized void reset() {
+      hits = 0;
+      misses = 0;
+      evictions = 0;
+   }
+
+   /**
+    * Returns the template of <tt>shape</tt> for <tt>parameters</tt>, building it with
+    * {@link TemplatedShape#calculateTemplate(float[])} when it is not cached. Templates are
+    * built outside of the cache lock, from <tt>parameters</tt> only.
+    */
+   CompactPath get( TemplatedShape shape, float[] parameters ) {
+      Key key = new Key( shape.getClass(), parameters );
+      synchronized( this ) {
+         CompactPath template = templates.get( key );
+         if( template != null ) {
+            hits++;
+            return template;
+         }
+         misses++;
+      }
+
+      Shape outline = shape.calculateTemplate( parameters );
+      CompactPath template = outline instanceof CompactPath ? (CompactPath) outline : CompactPath.of( outline );
+      synchronized( this ) {
+         if( maximumSize > 0 ) {
+            templates.put( key, template );
+         }
+      }
+      return template;
+   }
+
+   private static final class Key {
+      private final Class<?> type;
+      private final float[] parameters;
+      private final int hash;
+
+      Key( Class<?> type, float[] parameters ) {
+         this.type = type;
+         this.parameters = parameters;
+         this.hash = type.hashCode() * 31 + Arrays.hashCode( parameters );
+      }
+
+      public boolean equals( Object o ) {
+         if( !(o instanceof Key) ) {
+            return false;
+         }
+         Key other = (Key) o;
+         return type == other.type && Arrays.equals( parameters, other.parameters );
+      }
+
+      public int hashCode() {
+         return hash;
+      }
+   }
+}
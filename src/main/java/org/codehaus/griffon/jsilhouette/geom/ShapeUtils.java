@@ -30,23 +30,288 @@ package org.codehaus.griffon.jsilhouette.geom;
 
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Andres Almiray
  */
 public final class ShapeUtils {
+   private static final ShapeMonitor[] NO_MONITORS = new ShapeMonitor[0];
+
+   static volatile ShapeMonitor[] monitors = NO_MONITORS;
+
+   // -Djsilhouette.unionThreads=N, threads merging the parts of one union level, 1 merges on the caller only
+   private static final int UNION_THREADS = Integer.getInteger( "jsilhouette.unionThreads",
+         Runtime.getRuntime().availableProcessors() ).intValue();
+
+   private static Executor unionPool;
+   private static Executor backgroundExecutor;
+
+   static {
+      // -Djsilhouette.monitors=com.acme.Monitor1,com.acme.Monitor2, a monitor that can not be
+      // created fails the initialization of this class rather than going unnoticed
+      String classNames = System.getProperty( "jsilhouette.monitors" );
+      if( classNames != null ) {
+         for( String className : classNames.split( "," ) ) {
+            ShapeMonitor monitor;
+            try {
+               monitor = (ShapeMonitor) Class.forName( className.trim() ).getDeclaredConstructor().newInstance();
+            } catch( Exception e ) {
+               throw new IllegalArgumentException( "Could not register shape monitor " + className.trim(), e );
+            }
+            addShapeMonitor( monitor );
+         }
+      }
+   }
+
    private ShapeUtils(){}
 
+   public static synchronized void addShapeMonitor( ShapeMonitor monitor ) {
+      if( monitor == null ) {
+         throw new IllegalArgumentException( "monitor can not be null" );
+      }
+      ShapeMonitor[] m = new ShapeMonitor[monitors.length + 1];
+      System.arraycopy( monitors, 0, m, 0, monitors.length );
+      m[monitors.length] = monitor;
+      monitors = m;
+   }
+
+   public static synchronized void removeShapeMonitor( ShapeMonitor monitor ) {
+      for( int i = 0; i < monitors.length; i++ ) {
+         if( monitors[i] == monitor ) {
+            ShapeMonitor[] m = new ShapeMonitor[monitors.length - 1];
+            System.arraycopy( monitors, 0, m, 0, i );
+            System.arraycopy( monitors, i + 1, m, i, m.length - i );
+            monitors = m.length == 0 ? NO_MONITORS : m;
+            return;
+         }
+      }
+   }
+
+   public static ShapeMonitor[] getShapeMonitors() {
+      return monitors.clone();
+   }
+
    public static float normalizeAngle( float angle ){
       angle = angle % 360;
       return angle < 0 ? angle + 360 : angle; 
    }
 
    public static Shape rotate( Shape shape, float angle, float x, float y ){
+      return rotate( shape, angle, x, y, false );
+   }
+
+   /**
+    * Rotates like {@link #rotate(Shape, float, float, float)} but keeps compact paths compact
+    * and freezes Areas into compact paths, in float precision. Meant for outlines a shape
+    * keeps, createTransformedShape() would copy either into a GeneralPath.
+    */
+   static Shape rotateCompact( Shape shape, float angle, float x, float y ){
+      return rotate( shape, angle, x, y, true );
+   }
+
+   private static Shape rotate( Shape shape, float angle, float x, float y, boolean compact ){
       if( angle == 0 ){
          return shape;
       }
-      return AffineTransform.getRotateInstance( Math.toRadians( 360 - angle ), x, y ).createTransformedShape(
-            shape );
+      AffineTransform at = AffineTransform.getRotateInstance( Math.toRadians( 360 - angle ), x, y );
+      ShapeMonitor[] m = monitors;
+      if( m.length == 0 ) {
+         return transform( shape, at, compact );
+      }
+
+      Object[] tokens = new Object[m.length];
+      for( int i = 0; i < m.length; i++ ) {
+         tokens[i] = m[i].rotationStarted( shape, angle, x, y );
+      }
+      Shape rotated = transform( shape, at, compact );
+      for( int i = 0; i < m.length; i++ ) {
+         m[i].rotationFinished( tokens[i], rotated );
+      }
+      return rotated;
+   }
+
+   /**
+    * Returns the union of <tt>shapes</tt> as a new Area, the shapes are left untouched.<p>
+    * The parts are merged pairwise in a balanced cascade, so every curve takes part in a
+    * logarithmic number of merges instead of one merge per part as when adding them one by
+    * one into a single Area. Parts whose bounds do not overlap are only collected and joined
+    * in a single pass once they meet a part they overlap, or at the end. The merges of one
+    * level run in parallel on up to <tt>jsilhouette.unionThreads</tt> threads (the number of
+    * processors by default) including the calling thread, which takes over any merge no pool
+    * thread is free for.
+    */
+   public static Area unionAll( Shape... shapes ) {
+      if( shapes.length == 0 ) {
+         return new Area();
+      }
+      // the shapes are converted into parts by the first level of merges
+      Object[] level = shapes;
+      while( level.length > 1 ) {
+         final Object[] parts = level;
+         final Object[] merged = new Object[(parts.length + 1) / 2];
+         FutureTask<?>[] merges = new FutureTask<?>[parts.length / 2];
+         for( int i = 0; i < merges.length; i++ ) {
+            final int index = i;
+            merges[i] = new FutureTask<Object>( new Callable<Object>() {
+               public Object call() {
+                  merged[index] = merge( Part.of( parts[index * 2] ), Part.of( parts[(index * 2) + 1] ) );
+                  return null;
+               }
+            } );
+         }
+         if( merges.length < merged.length ) {
+            merged[merged.length - 1] = parts[parts.length - 1];
+         }
+         run( merges );
+         level = merged;
+      }
+      return Part.of( level[0] ).toArea();
+   }
+
+   private static Part merge( Part a, Part b ) {
+      if( a.bounds.isEmpty() ) {
+         return b;
+      } else if( b.bounds.isEmpty() ) {
+         return a;
+      } else if( !a.bounds.intersects( b.bounds ) ) {
+         Area[] areas = new Area[a.areas.length + b.areas.length];
+         System.arraycopy( a.areas, 0, areas, 0, a.areas.length );
+         System.arraycopy( b.areas, 0, areas, a.areas.length, b.areas.length );
+         return new Part( areas, a.bounds.createUnion( b.bounds ) );
+      }
+      Area area = a.toArea();
+      area.add( b.toArea() );
+      return new Part( area );
+   }
+
+   private static void run( FutureTask<?>[] tasks ) {
+      if( tasks.length > 1 && UNION_THREADS > 1 ) {
+         Executor pool = unionPool();
+         for( int i = 0; i < tasks.length - 1; i++ ) {
+            pool.execute( tasks[i] );
+         }
+      }
+      // running a task a pool thread already started does nothing, the caller never waits
+      // for a task that has not been started
+      for( int i = tasks.length - 1; i >= 0; i-- ) {
+         tasks[i].run();
+      }
+      boolean interrupted = false;
+      for( int i = 0; i < tasks.length; i++ ) {
+         while( true ) {
+            try {
+               tasks[i].get();
+               break;
+            } catch( InterruptedException e ) {
+               interrupted = true;
+            } catch( ExecutionException e ) {
+               Throwable cause = e.getCause();
+               if( cause instanceof RuntimeException ) {
+                  throw (RuntimeException) cause;
+               }
+               throw (Error) cause;
+            }
+         }
+      }
+      if( interrupted ) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private static synchronized Executor unionPool() {
+      if( unionPool == null ) {
+         // threads are started on demand and stop after idling, merges no thread can take
+         // right away are dropped as the caller runs them itself
+         unionPool = new ThreadPoolExecutor( 0, UNION_THREADS - 1, 30, TimeUnit.SECONDS,
+               new SynchronousQueue<Runnable>(), daemonThreads( "jsilhouette-union-" ),
+               new ThreadPoolExecutor.DiscardPolicy() );
+      }
+      return unionPool;
+   }
+
+   /**
+    * Returns the executor shapes made asynchronous with {@link AbstractShape#setAsync(boolean)}
+    * calculate their geometry on, one virtual thread per calculation where the JVM supports
+    * them (Java 21+), a pool of daemon threads as large as the number of processors otherwise.
+    */
+   static synchronized Executor backgroundExecutor() {
+      if( backgroundExecutor == null ) {
+         try {
+            backgroundExecutor = (Executor) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" )
+                  .invoke( null );
+         } catch( Exception e ) {
+            backgroundExecutor = Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors(),
+                  daemonThreads( "jsilhouette-background-" ) );
+         }
+      }
+      return backgroundExecutor;
+   }
+
+   private static ThreadFactory daemonThreads( final String prefix ) {
+      return new ThreadFactory() {
+         private final AtomicInteger count = new AtomicInteger();
+
+         public Thread newThread( Runnable runnable ) {
+            Thread thread = new Thread( runnable, prefix + count.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+         }
+      };
+   }
+
+   /**
+    * Areas of a union whose bounds do not overlap each other, not yet joined.
+    */
+   private static final class Part {
+      private final Area[] areas;
+      private final Rectangle2D bounds;
+
+      Part( Area area ) {
+         this( new Area[] { area }, area.getBounds2D() );
+      }
+
+      Part( Area[] areas, Rectangle2D bounds ) {
+         this.areas = areas;
+         this.bounds = bounds;
+      }
+
+      static Part of( Object part ) {
+         // a copy of an Area shares its curves until it is changed
+         return part instanceof Part ? (Part) part : new Part( new Area( (Shape) part ) );
+      }
+
+      Area toArea() {
+         if( areas.length == 1 ) {
+            return areas[0];
+         }
+         // the outlines do not cross, one pass over all of them joins them
+         CompactPath.Builder joined = new CompactPath.Builder( 64, 256 );
+         for( int i = 0; i < areas.length; i++ ) {
+            joined.append( areas[i], false );
+         }
+         return new Area( joined.toPath() );
+      }
+   }
+
+   private static Shape transform( Shape shape, AffineTransform at, boolean compact ) {
+      if( !compact ) {
+         return at.createTransformedShape( shape );
+      }
+      if( shape instanceof CompactPath ) {
+         return ((CompactPath) shape).transform( at );
+      }
+      return shape instanceof Area ? CompactPath.of( shape.getPathIterator( at ) ) : at.createTransformedShape( shape );
    }
 }
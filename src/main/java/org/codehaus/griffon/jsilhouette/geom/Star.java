@@ -28,13 +28,8 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.GeneralPath;
-import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines a star shape.<p>
@@ -45,7 +40,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Star implements Shape, Cloneable, Centered {
+public class Star extends AbstractShape implements Centered {
    public static void validateCount( int count ) {
       if( count < 2 ) {
          throw new IllegalArgumentException( "'count' can not be less than 2 [count=" + count + "]" );
@@ -67,8 +62,6 @@ public class Star implements Shape, Cloneable, Centered {
    private float cy;
    private float ir;
    private float or;
-   private GeneralPath path;
-   private Point2D[] points;
 
    public Star() {
       this( 5, 5, 8, 3, 5, 0 );
@@ -87,41 +80,17 @@ public class Star implements Shape, Cloneable, Centered {
       this.ir = ir;
       this.count = count;
       this.angle = ShapeUtils.normalizeAngle( angle );
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
       return new Star( cx, cy, or, ir, count, angle );
    }
 
-   public boolean contains( double x, double y ) {
-      return path.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return path.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return path.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return path.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
 
-   public Rectangle getBounds() {
-      return path.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return path.getBounds2D();
-   }
-
    public int getCount() {
       return count;
    }
@@ -142,136 +111,103 @@ public class Star implements Shape, Cloneable, Centered {
       return or;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return path.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return path.getPathIterator( at, flatness );
-   }
-
+   /**
+    * Returns the vertices of this star, outer and inner ones alternating.
+    */
    public Point2D[] getPoints() {
-      return points;
+      Shape path = getShape();
+      return path instanceof CompactPath ? ((CompactPath) path).getVertices() : null;
    }
 
    public float getRadius() {
       return or;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return path.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return path.intersects( r );
-   }
-
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setCount( int count ) {
-      if( this.count != count ) {
+      if( changed( "count", this.count != count ) ) {
          validateCount( count );
          this.count = count;
-         calculateShape();
+         recalculate( "count" );
       }
    }
 
    public void setCx( float cx ) {
-      if( this.cx != cx ) {
+      if( changed( "cx", this.cx != cx ) ) {
          this.cx = cx;
-         calculateShape();
+         recalculate( "cx" );
       }
    }
 
    public void setCy( float cy ) {
-      if( this.cy != cy ) {
+      if( changed( "cy", this.cy != cy ) ) {
          this.cy = cy;
-         calculateShape();
+         recalculate( "cy" );
       }
    }
 
    /**
-    * WARNING: change the value of 'or' before calling this method.
+    * Checked against 'or' right away unless an update is in progress.
     */
    public void setIr( float ir ) {
-      if( this.ir != ir ) {
-         validateRadii( ir, or );
+      if( changed( "ir", this.ir != ir ) ) {
+         if( !isUpdating() ) {
+            validateRadii( ir, or );
+         }
          this.ir = ir;
-         calculateShape();
+         recalculate( "ir" );
       }
    }
 
    public void setOr( float or ) {
-      if( this.or != or ) {
-         validateRadii( ir, or );
+      if( changed( "or", this.or != or ) ) {
+         if( !isUpdating() ) {
+            validateRadii( ir, or );
+         }
          this.or = or;
-         calculateShape();
+         recalculate( "or" );
       }
    }
 
-   private void calculateShape() {
-      float t = 360 / count;
-      float a = angle + 90;
-      float b = angle + 90 + (t / 2);
-      a = a > 360 ? a - 360 : a;
-      b = b > 360 ? b - 360 : b;
-      points = new Point2D[count * 2];
-      path = new GeneralPath();
-      for( int i = 0; i < count; i++ ){
-         float ra = (float) Math.toRadians( a );
-         float ox = (float) Math.abs( or * Math.cos( ra ) );
-         float oy = (float) Math.abs( or * Math.sin( ra ) );
-         if( a <= 90 ){
-            ox = cx + ox;
-            oy = cy - oy;
-         }else if( a <= 180 ){
-            ox = cx - ox;
-            oy = cy - oy;
-         }else if( a <= 270 ){
-            ox = cx - ox;
-            oy = cy + oy;
-         }else if( a <= 360 ){
-            ox = cx + ox;
-            oy = cy + oy;
-         }
-
-         float rb = (float) Math.toRadians( b );
-         float ix = (float) Math.abs( ir * Math.cos( rb ) );
-         float iy = (float) Math.abs( ir * Math.sin( rb ) );
-         if( b <= 90 ){
-            ix = cx + ix;
-            iy = cy - iy;
-         }else if( b <= 180 ){
-            ix = cx - ix;
-            iy = cy - iy;
-         }else if( b <= 270 ){
-            ix = cx - ix;
-            iy = cy + iy;
-         }else if( b <= 360 ){
-            ix = cx + ix;
-            iy = cy + iy;
-         }
+   protected void validateParameters() {
+      validateRadii( ir, or );
+   }
 
+   protected String paramString() {
+      return "cx=" + cx + ",cy=" + cy + ",or=" + or + ",ir=" + ir + ",count=" + count + ",angle=" + angle;
+   }
+
+   protected Shape calculateShape() {
+      // rotate a unit vector half a point at a time instead of evaluating sin/cos per vertex
+      int vertices = count * 2;
+      double step = Math.PI / count;
+      double cos = Math.cos( step );
+      double sin = Math.sin( step );
+      double start = Math.toRadians( angle + 90 );
+      double ux = Math.cos( start );
+      double uy = Math.sin( start );
+      CompactPath.Builder path = new CompactPath.Builder( vertices + 1, vertices * 2 );
+      for( int i = 0; i < vertices; i++ ){
+         float r = i % 2 == 0 ? or : ir;
+         float x = (float) (cx + (r * ux));
+         float y = (float) (cy - (r * uy));
          if( i == 0 ){
-            path.moveTo( ox, oy );
-            path.lineTo( ix, iy );
+            path.moveTo( x, y );
          }else{
-            path.lineTo( ox, oy );
-            path.lineTo( ix, iy );
+            path.lineTo( x, y );
          }
-         points[2 * i] = new Point2D.Float( ox, oy );
-         points[(2 * i) + 1] = new Point2D.Float( ix, iy );
-         a += t;
-         a = a > 360 ? a - 360 : a;
-         b += t;
-         b = b > 360 ? b - 360 : b;
+         double nx = (ux * cos) - (uy * sin);
+         uy = (uy * cos) + (ux * sin);
+         ux = nx;
       }
       path.closePath();
+      return path.toPath();
    }
 }
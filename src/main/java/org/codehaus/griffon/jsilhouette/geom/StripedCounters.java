@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed set of counters striped across threads so that concurrent updates
+ * rarely touch the same cache line; reads sum every stripe.
+ *
+ * @author Andres Almiray
+ */
+final class StripedCounters {
+   // longs between the slots of two stripes, keeps stripes on separate cache lines
+   private static final int PADDING = 16;
+
+   private final int stride;
+   private final int mask;
+   private final AtomicLongArray cells;
+
+   StripedCounters( int slots ) {
+      int stripes = 1;
+      int processors = Runtime.getRuntime().availableProcessors();
+      while( stripes < processors * 2 && stripes < 64 ) {
+         stripes <<= 1;
+      }
+      this.stride = slots + PADDING;
+      this.mask = stripes - 1;
+      this.cells = new AtomicLongArray( stripes * stride );
+   }
+
+   void add( int slot, long delta ) {
+      int stripe = (int) Thread.currentThread().getId() & mask;
+      cells.addAndGet( stripe * stride + slot, delta );
+   }
+
+   long sum( int slot ) {
+      long sum = 0;
+      for( int i = slot; i < cells.length(); i += stride ) {
+         sum += cells.get( i );
+      }
+      return sum;
+   }
+
+   void reset() {
+      for( int i = 0; i < cells.length(); i++ ) {
+         cells.set( i, 0 );
+      }
+   }
+}
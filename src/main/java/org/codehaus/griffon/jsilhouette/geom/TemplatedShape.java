@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import java.awt.Shape;
+import java.awt.geom.Area;
+
+/**
+ * Base class for shapes that are transformed copies of a normalized outline shared through
+ * {@link ShapeTemplateCache} by every shape of the same class and topology.<p>
+ * Subclasses build the outline in {@link #calculateTemplate(float[])} and obtain it, cached,
+ * from {@link #template(float[])} in {@link #calculateShape()}.
+ *
+ * @author Andres Almiray
+ */
+public abstract class TemplatedShape extends AbstractShape {
+   /**
+    * Builds the outline, centered at the origin with unit size, that {@link #template(float[])}
+    * shares between every shape with the same topology. An {@link Area} result is copied into
+    * a compact path.<p>
+    * The outline must only depend on <tt>parameters</tt>, never on the properties of this
+    * shape: the cache stores it under those parameters, and setters of an asynchronous shape
+    * may change its properties while a background calculation builds it.
+    *
+    * @param parameters the topology parameters given to {@link #template(float[])}, do not modify them
+    */
+   protected abstract Shape calculateTemplate( float[] parameters );
+
+   /**
+    * Returns the cached template of this shape's class for the given topology
+    * <tt>parameters</tt>, building it with {@link #calculateTemplate(float[])} on a miss.
+    * The template is immutable, {@link #place(Shape, float, float, float, float)} it.
+    *
+    * @see ShapeTemplateCache
+    */
+   protected final Shape template( float... parameters ) {
+      return ShapeTemplateCache.getInstance().get( this, parameters );
+   }
+}
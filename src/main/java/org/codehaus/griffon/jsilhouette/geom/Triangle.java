@@ -28,13 +28,7 @@
 
 package org.codehaus.griffon.jsilhouette.geom;
 
-import java.awt.Rectangle;
 import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.GeneralPath;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Defines a triangular shape [equilateral | isosceles | right].<p>
@@ -45,7 +39,7 @@ ${code}
  *
  * @author Andres Almiray
  */
-public class Triangle implements Shape, Cloneable, Centered {
+public class Triangle extends AbstractShape implements Centered {
    public static final int NONE = -1;
    public static final int ANGLE_AT_END = 1;
    public static final int ANGLE_AT_START = 0;
@@ -60,7 +54,6 @@ public class Triangle implements Shape, Cloneable, Centered {
    private float cy;
    private float height = Float.NaN;
    private boolean rotateAtCenter;
-   private Shape triangle;
    private int type = EQUILATERAL;
    private float width;
    private float x;
@@ -80,7 +73,7 @@ public class Triangle implements Shape, Cloneable, Centered {
       this.width = width;
       this.angle = ShapeUtils.normalizeAngle( angle );
       this.rotateAtCenter = rotateAtCenter;
-      calculateShape();
+      recalculate( null );
    }
 
    public Triangle( float x, float y, float width, float angle, float height ) {
@@ -94,7 +87,7 @@ public class Triangle implements Shape, Cloneable, Centered {
       this.angle = ShapeUtils.normalizeAngle( angle );
       this.height = height;
       this.rotateAtCenter = rotateAtCenter;
-      calculateShape();
+      recalculate( null );
    }
 
    public Triangle( float x, float y, float width, float angle, int anglePosition ) {
@@ -108,7 +101,7 @@ public class Triangle implements Shape, Cloneable, Centered {
       this.angle = ShapeUtils.normalizeAngle( angle );
       this.anglePosition = anglePosition;
       this.rotateAtCenter = rotateAtCenter;
-      calculateShape();
+      recalculate( null );
    }
 
    public Triangle( float x, float y, float width, float angle, int anglePosition, float height ) {
@@ -123,10 +116,11 @@ public class Triangle implements Shape, Cloneable, Centered {
       this.anglePosition = anglePosition;
       this.height = height;
       this.rotateAtCenter = rotateAtCenter;
-      calculateShape();
+      recalculate( null );
    }
 
    public Object clone() {
+      validate();
       switch( type ) {
          case ISOSCELES:
             return new Triangle( x, y, width, angle, height, rotateAtCenter );
@@ -137,22 +131,6 @@ public class Triangle implements Shape, Cloneable, Centered {
       }
    }
 
-   public boolean contains( double x, double y ) {
-      return triangle.contains( x, y );
-   }
-
-   public boolean contains( double x, double y, double w, double h ) {
-      return triangle.contains( x, y, w, h );
-   }
-
-   public boolean contains( Point2D p ) {
-      return triangle.contains( p );
-   }
-
-   public boolean contains( Rectangle2D r ) {
-      return triangle.contains( r );
-   }
-
    public float getAngle() {
       return angle;
    }
@@ -161,19 +139,13 @@ public class Triangle implements Shape, Cloneable, Centered {
       return anglePosition;
    }
 
-   public Rectangle getBounds() {
-      return triangle.getBounds();
-   }
-
-   public Rectangle2D getBounds2D() {
-      return triangle.getBounds2D();
-   }
-
    public float getCx() {
+      validate();
       return cx;
    }
 
    public float getCy() {
+      validate();
       return cy;
    }
 
@@ -186,18 +158,12 @@ public class Triangle implements Shape, Cloneable, Centered {
    }
 
    public float getHeight() {
+      validate();
       return height;
    }
 
-   public PathIterator getPathIterator( AffineTransform at ) {
-      return triangle.getPathIterator( at );
-   }
-
-   public PathIterator getPathIterator( AffineTransform at, double flatness ) {
-      return triangle.getPathIterator( at, flatness );
-   }
-
    public int getType() {
+      validate();
       return type;
    }
 
@@ -205,114 +171,107 @@ public class Triangle implements Shape, Cloneable, Centered {
       return width;
    }
 
-   public boolean intersects( double x, double y, double w, double h ) {
-      return triangle.intersects( x, y, w, h );
-   }
-
-   public boolean intersects( Rectangle2D r ) {
-      return triangle.intersects( r );
-   }
-
    public boolean isRotateAtCenter() {
       return rotateAtCenter;
    }
 
    public void setAngle( float angle ) {
       float a = ShapeUtils.normalizeAngle( angle );
-      if( this.angle != a ) {
+      if( changed( "angle", this.angle != a ) ) {
          this.angle = a;
-         calculateShape();
+         recalculate( "angle" );
       }
    }
 
    public void setX( float x ) {
-      if( this.x != x ) {
+      if( changed( "x", this.x != x ) ) {
          this.x = x;
-         calculateShape();
+         recalculate( "x" );
       }
    }
 
    public void setY( float y ) {
-      if( this.y != y ) {
+      if( changed( "y", this.y != y ) ) {
          this.y = y;
-         calculateShape();
+         recalculate( "y" );
       }
    }
 
    public void setWidth( float width ) {
-      if( this.width != width ) {
+      if( changed( "width", this.width != width ) ) {
          this.width = width;
-         calculateShape();
+         recalculate( "width" );
       }
    }
 
    public void setHeight( float height ) {
-      if( this.height != height ) {
+      if( changed( "height", this.height != height ) ) {
          this.height = height;
-         calculateShape();
+         recalculate( "height" );
       }
    }
 
    public void setAnglePosition( int anglePosition ) {
-      if( this.anglePosition != anglePosition ) {
+      if( changed( "anglePosition", this.anglePosition != anglePosition ) ) {
          this.anglePosition = anglePosition;
-         calculateShape();
+         recalculate( "anglePosition" );
       }
    }
 
    public void setRotateAtCenter( boolean rotateAtCenter ) {
-      if( this.rotateAtCenter != rotateAtCenter ) {
+      if( changed( "rotateAtCenter", this.rotateAtCenter != rotateAtCenter ) ) {
          this.rotateAtCenter = rotateAtCenter;
-         calculateShape();
+         recalculate( "rotateAtCenter" );
       }
    }
 
-   private void calculateShape() {
+   protected String paramString() {
+      return "x=" + x + ",y=" + y + ",width=" + width + ",height=" + height + ",angle=" + angle + ",anglePosition="
+            + anglePosition + ",rotateAtCenter=" + rotateAtCenter;
+   }
+
+   protected Shape calculateShape() {
       if( anglePosition != NONE ) {
          this.type = RIGHT;
-         calculateRightTriangle();
+         return calculateRightTriangle();
       } else if( !Double.isNaN( height ) && !Double.isInfinite( height ) ) {
          this.type = ISOSCELES;
-         calculateIsoscelesTriangle();
+         return calculateIsoscelesTriangle();
       } else {
          this.type = EQUILATERAL;
-         calculateEquilateralTriangle();
+         return calculateEquilateralTriangle();
       }
    }
 
-   private void calculateEquilateralTriangle() {
+   private Shape calculateEquilateralTriangle() {
       this.height = (float) Math.abs( Math.sqrt( 3 ) / 2 * width );
-      GeneralPath t = new GeneralPath();
+      CompactPath.Builder t = new CompactPath.Builder( 4, 6 );
       t.moveTo( x, y );
       t.lineTo( x + width, y );
       t.lineTo( x + (width / 2), y - height );
       t.closePath();
-      triangle = t;
-
-      rotate( new float[] { width, width, width }, new float[][] { { x, y }, { x + width, y },
+      return rotate( t.toPath(), new float[] { width, width, width }, new float[][] { { x, y }, { x + width, y },
             { x + (width / 2), y - height } } );
    }
 
-   private void calculateIsoscelesTriangle() {
+   private Shape calculateIsoscelesTriangle() {
       this.height = (float) (!Double.isNaN( height ) && !Double.isInfinite( height ) ? Math.abs( height ) : Math
             .abs( Math.sqrt( 3 ) / 2 * width ));
-      GeneralPath t = new GeneralPath();
+      CompactPath.Builder t = new CompactPath.Builder( 4, 6 );
       t.moveTo( x, y );
       t.lineTo( x + width, y );
       t.lineTo( x + (width / 2), y - height );
       t.closePath();
-      triangle = t;
-
       float d = (float) Math.sqrt( Math.pow( width / 2, 2 ) + Math.pow( height, 2 ) );
-      rotate( new float[] { width, d, d },
+      return rotate( t.toPath(), new float[] { width, d, d },
             new float[][] { { x, y }, { x + width, y }, { x + (width / 2), y - height } } );
    }
 
-   private void calculateRightTriangle() {
+   private Shape calculateRightTriangle() {
       this.anglePosition = anglePosition > ANGLE_AT_END ? ANGLE_AT_START : anglePosition;
       this.height = (float) (!Double.isNaN( height ) && !Double.isInfinite( height ) ? Math.abs( height ) : Math
             .abs( Math.sqrt( 3 ) / 2 * width ));
-      GeneralPath t = new GeneralPath();
+      CompactPath.Builder t = new CompactPath.Builder( 4, 6 );
       t.moveTo( x, y );
       if( anglePosition == ANGLE_AT_START ) {
          t.lineTo( x, y - height );
@@ -322,25 +281,24 @@ public class Triangle implements Shape, Cloneable, Centered {
          t.lineTo( x + width, y - height );
       }
       t.closePath();
-      triangle = t;
-
       float d = (float) Math.sqrt( Math.pow( width, 2 ) + Math.pow( height, 2 ) );
       if( anglePosition == ANGLE_AT_END ) {
-         rotate( new float[] { width, height, d }, new float[][] { { x, y }, { x + width, y },
-               { x + width, y - height } } );
+         return rotate( t.toPath(), new float[] { width, height, d }, new float[][] { { x, y },
+               { x + width, y }, { x + width, y - height } } );
       } else {
-         rotate( new float[] { width, height, d }, new float[][] { { x + width, y }, { x, y }, { x, y - height } } );
+         return rotate( t.toPath(), new float[] { width, height, d }, new float[][] { { x + width, y },
+               { x, y }, { x, y - height } } );
       }
    }
 
-   private void rotate( float[] sides, float[][] points ) {
+   private Shape rotate( Shape triangle, float[] sides, float[][] points ) {
       float perimeter = sides[0] + sides[1] + sides[2];
       cx = ((sides[0] * points[2][0]) + (sides[1] * points[0][0]) + (sides[2] * points[1][0])) / perimeter;
       cy = ((sides[0] * points[2][1]) + (sides[1] * points[0][1]) + (sides[2] * points[1][1])) / perimeter;
       if( rotateAtCenter ) {
-         triangle = ShapeUtils.rotate( triangle, angle, cx, cy );
+         return ShapeUtils.rotateCompact( triangle, angle, cx, cy );
       } else {
-         triangle = ShapeUtils.rotate( triangle, angle, x, y );
+         return ShapeUtils.rotateCompact( triangle, angle, x, y );
       }
    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+
+import org.junit.Test;
+
+/**
+ * Traced asterisk templates must cover the same area as the union of their beams.
+ *
+ * @author Andres Almiray
+ */
+public class AsteriskTest {
+   @Test
+   public void neighbouringSidesMeetOnTheTips() {
+      assertTraced( 12, 0.25f, 0.5f );
+   }
+
+   @Test
+   public void tipsHideTheBeamsBetweenThem() {
+      assertTraced( 30, 0.25f, 0.5f );
+      assertTraced( 40, 0.25f, 0 );
+      assertTraced( 24, 0.8f, 1 );
+   }
+
+   @Test
+   public void beamsThatDoNotDivideTheCircle() {
+      assertTraced( 7, 0.1f, 0.5f );
+   }
+
+   private static void assertTraced( int beams, float w, float roundness ) {
+      Shape template = new Asterisk().calculateTemplate( new float[] { beams, w, roundness } );
+      assertFalse( template instanceof Area );
+
+      Area union = new Area();
+      for( int i = 0; i < beams; i++ ) {
+         Shape beam = new MultiRoundRectangle( 0, -w, 1, w * 2, 0, w * roundness, 0, w * roundness );
+         union.add( new Area( ShapeUtils.rotate( beam, i * 360f / beams, 0, 0 ) ) );
+      }
+      Area difference = new Area( template );
+      difference.exclusiveOr( union );
+      assertEquals( 0, area( difference ) / area( union ), 1e-4 );
+   }
+
+   private static double area( Shape shape ) {
+      double area = 0;
+      double[] coords = new double[6];
+      double startX = 0;
+      double startY = 0;
+      double x = 0;
+      double y = 0;
+      for( PathIterator i = shape.getPathIterator( null, 1e-4 ); !i.isDone(); i.next() ) {
+         switch( i.currentSegment( coords ) ) {
+            case PathIterator.SEG_MOVETO:
+               startX = x = coords[0];
+               startY = y = coords[1];
+               break;
+            case PathIterator.SEG_LINETO:
+               area += (x * coords[1]) - (coords[0] * y);
+               x = coords[0];
+               y = coords[1];
+               break;
+            default:
+               area += (x * startY) - (startX * y);
+               x = startX;
+               y = startY;
+               break;
+         }
+      }
+      return Math.abs( area / 2 );
+   }
+}
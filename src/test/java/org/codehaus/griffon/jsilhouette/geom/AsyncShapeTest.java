@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Background calculations only ever publish the geometry of the latest properties.
+ *
+ * @author Andres Almiray
+ */
+public class AsyncShapeTest {
+   @Test
+   public void supersededCalculationsAreNotPublished() {
+      Queue executor = new Queue();
+      final List<Rectangle2D> published = new ArrayList<Rectangle2D>();
+      final Probe probe = new Probe();
+      probe.setAsync( executor, new GeometryListener() {
+         public void geometryChanged( AbstractShape shape ) {
+            published.add( shape.getBounds2D() );
+         }
+      } );
+      probe.calculations = 0;
+      probe.setX( 10 );
+      probe.during = new Runnable() {
+         public void run() {
+            probe.during = null;
+            probe.setX( 20 );
+         }
+      };
+      executor.runAll();
+
+      assertEquals( 2, probe.calculations );
+      assertEquals( 1, published.size() );
+      assertEquals( new Rectangle2D.Float( 20, 0, 1, 1 ), published.get( 0 ) );
+      assertEquals( new Rectangle2D.Float( 20, 0, 1, 1 ), probe.getBounds2D() );
+   }
+
+   @Test( timeout = 10000 )
+   public void switchingToSyncWhileCalculating() throws Exception {
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+         final CountDownLatch entered = new CountDownLatch( 1 );
+         final CountDownLatch proceed = new CountDownLatch( 1 );
+         final Probe probe = new Probe();
+         probe.setAsync( executor );
+         probe.during = new Runnable() {
+            public void run() {
+               probe.during = null;
+               entered.countDown();
+               try {
+                  proceed.await();
+               } catch( InterruptedException e ) {
+                  Thread.currentThread().interrupt();
+               }
+            }
+         };
+         probe.setX( 10 );
+         Future<Shape> calculation = probe.getCalculation();
+         assertTrue( entered.await( 5, TimeUnit.SECONDS ) );
+         proceed.countDown();
+         probe.setAsync( null );
+
+         assertFalse( probe.isAsync() );
+         assertTrue( calculation.isDone() );
+         assertTrue( probe.getCalculation().isDone() );
+         assertEquals( new Rectangle2D.Float( 10, 0, 1, 1 ), probe.getBounds2D() );
+         probe.setX( 30 );
+         assertEquals( new Rectangle2D.Float( 30, 0, 1, 1 ), probe.getBounds2D() );
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void failuresSurfaceThroughTheCalculation() throws Exception {
+      Queue executor = new Queue();
+      Probe probe = new Probe();
+      probe.setAsync( executor );
+      probe.setX( -1 );
+      Future<Shape> calculation = probe.getCalculation();
+      executor.runAll();
+
+      try {
+         calculation.get();
+         fail( "the calculation hid the failure of calculateShape()" );
+      } catch( ExecutionException e ) {
+         assertTrue( e.getCause() instanceof IllegalStateException );
+      }
+      assertEquals( new Rectangle2D.Float( 0, 0, 1, 1 ), probe.getBounds2D() );
+      assertTrue( probe.getCalculation().isDone() );
+   }
+
+   /**
+    * Runs tasks only when told to, on the calling thread.
+    */
+   private static final class Queue implements Executor {
+      private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+      public void execute( Runnable task ) {
+         tasks.add( task );
+      }
+
+      void runAll() {
+         while( !tasks.isEmpty() ) {
+            tasks.remove( 0 ).run();
+         }
+      }
+   }
+
+   /**
+    * A unit square at x that runs <tt>during</tt> while it is calculated and fails for negative x.
+    */
+   private static final class Probe extends AbstractShape {
+      private float x;
+      volatile Runnable during;
+      volatile int calculations;
+
+      Probe() {
+         recalculate( null );
+      }
+
+      void setX( float x ) {
+         if( changed( "x", this.x != x ) ) {
+            this.x = x;
+            recalculate( "x" );
+         }
+      }
+
+      protected String paramString() {
+         return "x=" + x;
+      }
+
+      protected Shape calculateShape() {
+         float x = this.x;
+         calculations++;
+         Runnable during = this.during;
+         if( during != null ) {
+            during.run();
+         }
+         if( x < 0 ) {
+            throw new IllegalStateException( "x can not be negative" );
+         }
+         return new Rectangle2D.Float( x, 0, 1, 1 );
+      }
+   }
+}
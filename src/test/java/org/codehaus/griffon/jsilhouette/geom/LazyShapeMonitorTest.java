@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Monitors that query a lazy shape while it is being calculated must see the new
+ * geometry, not trigger another calculation.
+ *
+ * @author Andres Almiray
+ */
+public class LazyShapeMonitorTest {
+   private ShapeMonitor monitor;
+
+   @After
+   public void cleanUp() {
+      if( monitor != null ) {
+         ShapeUtils.removeShapeMonitor( monitor );
+      }
+      ShapeStatisticsRegistry.disable();
+      ShapeStatisticsRegistry.reset();
+   }
+
+   @Test
+   public void statisticsOfALazyShape() {
+      Rectangle2D expected = new Star( 10, 50, 40, 15, 5, 0 ).getBounds2D();
+      ShapeStatisticsRegistry.enable();
+      ShapeStatisticsRegistry.reset();
+      Star star = new Star( 50, 50, 40, 15, 5, 0 );
+      star.setLazy( true );
+      star.setCx( 10 );
+
+      assertEquals( expected, star.getBounds2D() );
+      assertEquals( 2, ShapeStatisticsRegistry.getStatistics( Star.class ).getCalculations() );
+   }
+
+   @Test
+   public void monitorQueryingALazyShape() {
+      final List<Rectangle2D> queried = new ArrayList<Rectangle2D>();
+      final List<Rectangle2D> calculated = new ArrayList<Rectangle2D>();
+      monitor = new ShapeMonitorAdapter() {
+         public void calculationFinished( Object token, AbstractShape shape, Shape geometry, String trigger,
+               int areaOperations ) {
+            queried.add( shape.getBounds2D() );
+            calculated.add( geometry.getBounds2D() );
+         }
+      };
+      Star star = new Star( 50, 50, 40, 15, 5, 0 );
+      star.setLazy( true );
+      ShapeUtils.addShapeMonitor( monitor );
+      star.setCx( 10 );
+      star.setCy( 20 );
+
+      Rectangle2D bounds = star.getBounds2D();
+      assertEquals( 1, queried.size() );
+      assertEquals( bounds, queried.get( 0 ) );
+      assertEquals( bounds, calculated.get( 0 ) );
+      assertEquals( new Star( 10, 20, 40, 15, 5, 0 ).getBounds2D(), bounds );
+   }
+}
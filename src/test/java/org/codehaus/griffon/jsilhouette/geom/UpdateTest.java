@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2011, Andres Almiray
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 3. Neither the name of jSilhouette nor the names of its contributors may be used
+ *    to endorse or promote products derived from this software without
+ *    specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.codehaus.griffon.jsilhouette.geom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.awt.geom.Rectangle2D;
+
+import org.junit.Test;
+
+/**
+ * Properties changed inside an update are validated against each other when it ends,
+ * invalid ones never reach the geometry.
+ *
+ * @author Andres Almiray
+ */
+public class UpdateTest {
+   @Test
+   public void propertiesAreCheckedWhenTheUpdateEnds() {
+      Asterisk asterisk = new Asterisk( 50, 50, 10, 5 );
+      asterisk.beginUpdate();
+      asterisk.setWidth( 30 );
+      asterisk.setRadius( 20 );
+      asterisk.endUpdate();
+      assertEquals( new Asterisk( 50, 50, 20, 30 ).getBounds2D(), asterisk.getBounds2D() );
+
+      Cross cross = new Cross( 50, 50, 10, 5 );
+      cross.beginUpdate();
+      cross.setWidth( 30 );
+      cross.setRadius( 20 );
+      cross.endUpdate();
+      assertEquals( new Cross( 50, 50, 20, 30 ).getBounds2D(), cross.getBounds2D() );
+   }
+
+   @Test
+   public void invalidPropertiesKeepThePreviousGeometry() {
+      Donut donut = new Donut( 50, 50, 20, 10, 0 );
+      Rectangle2D bounds = donut.getBounds2D();
+      donut.beginUpdate();
+      donut.setIr( 20 );
+      donut.setOr( 8 );
+      try {
+         donut.endUpdate();
+         fail( "endUpdate() accepted ir > or" );
+      } catch( IllegalArgumentException expected ) {
+      }
+      assertEquals( bounds, donut.getBounds2D() );
+
+      try {
+         donut.setCx( 10 );
+         fail( "setCx() calculated from ir > or" );
+      } catch( IllegalArgumentException expected ) {
+      }
+      assertEquals( bounds, donut.getBounds2D() );
+
+      donut.setIr( 4 );
+      assertEquals( new Donut( 10, 50, 8, 4, 0 ).getBounds2D(), donut.getBounds2D() );
+   }
+
+   @Test
+   public void aFailedBlockKeepsThePreviousGeometry() {
+      final Donut donut = new Donut( 50, 50, 20, 10, 0 );
+      donut.setLazy( true );
+      Rectangle2D bounds = donut.getBounds2D();
+      try {
+         donut.update( new Runnable() {
+            public void run() {
+               donut.setIr( 30 );
+               throw new IllegalStateException( "block failed" );
+            }
+         } );
+         fail( "update() swallowed the failure of its block" );
+      } catch( IllegalStateException expected ) {
+         assertEquals( "block failed", expected.getMessage() );
+      }
+      assertEquals( bounds, donut.getBounds2D() );
+
+      donut.setOr( 40 );
+      assertEquals( new Donut( 50, 50, 40, 30, 0 ).getBounds2D(), donut.getBounds2D() );
+   }
+}